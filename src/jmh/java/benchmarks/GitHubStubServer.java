@@ -0,0 +1,142 @@
+package benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal stand-in for the GitHub REST API, enough for GitHubService's sync and rate-limit calls.
+ * <p>
+ * Serves /users/{login}, /users/{login}/repos and /rate_limit with deterministic data: each login
+ * owns 1-30 repositories named repo-0, repo-1, ... (matching the GitHub URLs SyntheticDataSeeder
+ * writes, so part of them count as already imported). Point the app at it with
+ * github.api.url=http://localhost:{port} (the "loadtest" profile uses 8089).
+ * <p>
+ * Run standalone: {@code java ... benchmarks.GitHubStubServer [port] [latencyMs]}
+ */
+public final class GitHubStubServer implements AutoCloseable {
+
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final HttpServer server;
+    private final long latencyMs;
+
+    public GitHubStubServer(int port, long latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        long latencyMs = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        GitHubStubServer stub = new GitHubStubServer(port, latencyMs);
+        stub.start();
+        System.out.printf("GitHub stub listening on http://127.0.0.1:%d (latency %d ms)%n", port, latencyMs);
+        Thread.currentThread().join();
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            simulateLatency();
+            String[] segments = exchange.getRequestURI().getPath().split("/");
+            if (segments.length == 2 && "rate_limit".equals(segments[1])) {
+                respond(exchange, 200, rateLimit());
+            } else if (segments.length == 3 && "users".equals(segments[1])) {
+                respond(exchange, 200, user(segments[2]));
+            } else if (segments.length == 4 && "users".equals(segments[1]) && "repos".equals(segments[3])) {
+                respond(exchange, 200, repositories(segments[2]));
+            } else {
+                respond(exchange, 404, "{\"message\":\"Not Found\"}");
+            }
+        }
+    }
+
+    private void simulateLatency() {
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        long reset = Instant.now().plus(1, ChronoUnit.HOURS).getEpochSecond();
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("X-RateLimit-Limit", "5000");
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", "4999");
+        exchange.getResponseHeaders().set("X-RateLimit-Reset", String.valueOf(reset));
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String rateLimit() {
+        long reset = Instant.now().plus(1, ChronoUnit.HOURS).getEpochSecond();
+        String core = "{\"limit\":5000,\"remaining\":4999,\"used\":1,\"reset\":" + reset + "}";
+        return "{\"resources\":{\"core\":" + core + ",\"search\":" + core + "},\"rate\":" + core + "}";
+    }
+
+    private static String user(String login) {
+        return "{\"login\":\"" + login + "\",\"id\":" + id(login) + ",\"type\":\"User\","
+                + "\"url\":\"https://api.github.com/users/" + login + "\","
+                + "\"html_url\":\"https://github.com/" + login + "\","
+                + "\"public_repos\":" + repositoryCount(login) + "}";
+    }
+
+    private static String repositories(String login) {
+        StringBuilder json = new StringBuilder("[");
+        int count = repositoryCount(login);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String name = "repo-" + i;
+            Instant created = EPOCH.plus(i * 7L, ChronoUnit.DAYS);
+            json.append("{\"id\":").append(id(login) * 100 + i)
+                    .append(",\"name\":\"").append(name).append('"')
+                    .append(",\"full_name\":\"").append(login).append('/').append(name).append('"')
+                    .append(",\"description\":\"Stub repository ").append(i).append('"')
+                    .append(",\"html_url\":\"https://github.com/").append(login).append('/').append(name).append('"')
+                    .append(",\"url\":\"https://api.github.com/repos/").append(login).append('/').append(name).append('"')
+                    .append(",\"fork\":").append(i % 10 == 9)
+                    .append(",\"stargazers_count\":").append((i * 3) % 20)
+                    .append(",\"created_at\":\"").append(created).append('"')
+                    .append(",\"updated_at\":\"").append(created.plus(30, ChronoUnit.DAYS)).append('"')
+                    .append(",\"pushed_at\":").append(i % 4 == 0 ? "null" : "\"" + created.plus(20, ChronoUnit.DAYS) + "\"")
+                    .append(",\"owner\":{\"login\":\"").append(login).append("\",\"id\":").append(id(login)).append('}')
+                    .append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    private static int repositoryCount(String login) {
+        return Math.floorMod(login.hashCode(), 30) + 1;
+    }
+
+    private static long id(String login) {
+        return Math.floorMod(login.hashCode(), 1_000_000) + 1;
+    }
+}
@@ -0,0 +1,73 @@
+package benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import service.JwtService;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing and checking tokens, i.e. what every login, refresh and authenticated API call
+ * pays in {@link JwtService}. Verification includes the signature check and claim parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtServiceBenchmark {
+
+    private static final String USERNAME = "bench-user";
+    private static final String ROLE = "USER";
+
+    private final UUID userId = UUID.randomUUID();
+
+    private JwtService jwtService;
+    private String accessToken;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", "benchmark-signing-key-0123456789-0123456789-0123456789");
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 900L);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", 1500L);
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", new SimpleMeterRegistry());
+        jwtService.initMetrics();
+
+        accessToken = jwtService.generateAccessToken(userId, USERNAME, ROLE);
+        refreshToken = jwtService.generateRefreshToken(userId, USERNAME, ROLE);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(userId, USERNAME, ROLE);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(userId, USERNAME, ROLE);
+    }
+
+    @Benchmark
+    public boolean verifyAccessToken() {
+        return jwtService.isAccessTokenValid(accessToken, USERNAME);
+    }
+
+    @Benchmark
+    public boolean verifyRefreshToken() {
+        return jwtService.isRefreshTokenValid(refreshToken, USERNAME);
+    }
+}
@@ -0,0 +1,336 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import service.SyntheticDataSeeder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load driver: each virtual user loops login, refresh, list projects, update progress
+ * and logout against a running instance, as one of the users created by {@link SyntheticDataSeeder}.
+ * <p>
+ * Reports throughput and p50/p99/p99.9 latency per step, printed and written as JSON. Runs offline:
+ * start the app with the "loadtest" profile (GitHub calls go to {@link GitHubStubServer}, which this
+ * driver can host with --github-stub-port). Options, all --name=value:
+ * base-url, concurrency, duration-seconds, warmup-seconds, users, password, think-time-ms,
+ * github-stub-port, github-stub-latency-ms, report, label, baseline.
+ * <p>
+ * To compare execution models, run once per model with a distinct label and pass the first report
+ * as --baseline to the second run: each step then also prints throughput and p99 relative to it,
+ * e.g. platform threads vs the "virtual-threads" profile.
+ */
+public final class LoadDriver {
+
+    enum Step { LOGIN, REFRESH, LIST_PROJECTS, UPDATE_PROGRESS, LOGOUT }
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+    private static final String REFRESH_COOKIE = "refreshToken";
+
+    private final URI baseUri;
+    private String label = "";
+    private Path baseline;
+    private final int users;
+    private final String password;
+    private final long thinkTimeMs;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Step, Recorder> recorders = new EnumMap<>(Step.class);
+    private final Map<Step, AtomicLong> errors = new EnumMap<>(Step.class);
+
+    private LoadDriver(URI baseUri, int users, String password, long thinkTimeMs) {
+        this.baseUri = baseUri;
+        this.users = users;
+        this.password = password;
+        this.thinkTimeMs = thinkTimeMs;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (Step step : Step.values()) {
+            recorders.put(step, new Recorder(MAX_LATENCY_MICROS, 3));
+            errors.put(step, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration-seconds", "60"));
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup-seconds", "10"));
+        int stubPort = Integer.parseInt(options.getOrDefault("github-stub-port", "0"));
+        long stubLatencyMs = Long.parseLong(options.getOrDefault("github-stub-latency-ms", "50"));
+        Path report = Paths.get(options.getOrDefault("report", "target/load-report.json"));
+
+        LoadDriver driver = new LoadDriver(
+                URI.create(options.getOrDefault("base-url", "http://localhost:8080")),
+                Integer.parseInt(options.getOrDefault("users", "1000")),
+                options.getOrDefault("password", "seed-password"),
+                Long.parseLong(options.getOrDefault("think-time-ms", "0")));
+        driver.label = options.getOrDefault("label", "");
+        String baseline = options.getOrDefault("baseline", "");
+        driver.baseline = baseline.isBlank() ? null : Paths.get(baseline);
+
+        GitHubStubServer stub = null;
+        if (stubPort > 0) {
+            stub = new GitHubStubServer(stubPort, stubLatencyMs);
+            stub.start();
+            System.out.printf("GitHub stub listening on port %d%n", stubPort);
+        }
+        try {
+            driver.run(concurrency, warmupSeconds, durationSeconds, report);
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+
+    private void run(int concurrency, long warmupSeconds, long durationSeconds, Path report) throws Exception {
+        System.out.printf("Driving %s with %d virtual users: %d s warmup, %d s measured%n",
+                baseUri, concurrency, warmupSeconds, durationSeconds);
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> virtualUser(end));
+            }
+
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(Math.max(warmupEnd - System.nanoTime(), 0)));
+            // Drop warmup samples; from here on everything counts
+            recorders.values().forEach(Recorder::reset);
+            errors.values().forEach(counter -> counter.set(0));
+        }
+
+        report(durationSeconds, concurrency, report);
+    }
+
+    private void virtualUser(long endNanos) {
+        while (System.nanoTime() < endNanos) {
+            String username = SyntheticDataSeeder.username(pickUser());
+            try {
+                session(username);
+            } catch (IOException e) {
+                // Counted against the step that failed; keep going with the next session
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void session(String username) throws IOException, InterruptedException {
+        ObjectNode credentials = objectMapper.createObjectNode()
+                .put("username", username)
+                .put("password", password);
+        HttpResponse<String> login = send(Step.LOGIN, post("/api/auth/login", credentials.toString(), null, null));
+        if (login == null) {
+            return;
+        }
+        String accessToken = objectMapper.readTree(login.body()).path("accessToken").asText();
+        Optional<String> refreshToken = refreshCookie(login);
+        if (refreshToken.isEmpty()) {
+            return;
+        }
+        think();
+
+        HttpResponse<String> refresh = send(Step.REFRESH, post("/api/auth/refresh", "", null, refreshToken.get()));
+        if (refresh == null) {
+            return;
+        }
+        accessToken = objectMapper.readTree(refresh.body()).path("accessToken").asText(accessToken);
+        // Refresh rotates the token; logout has to present the new one
+        Optional<String> rotated = refreshCookie(refresh);
+        if (rotated.isPresent()) {
+            refreshToken = rotated;
+        }
+        think();
+
+        HttpResponse<String> projects = send(Step.LIST_PROJECTS, request("/api/projects", accessToken, null).GET().build());
+        if (projects != null) {
+            JsonNode list = objectMapper.readTree(projects.body());
+            if (list.isArray() && !list.isEmpty()) {
+                String projectId = list.get(ThreadLocalRandom.current().nextInt(list.size())).path("id").asText();
+                String progress = "{\"progress\":" + ThreadLocalRandom.current().nextInt(101) + "}";
+                think();
+                send(Step.UPDATE_PROGRESS, request("/api/projects/" + projectId + "/progress", accessToken, null)
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(progress))
+                        .build());
+            }
+        }
+        think();
+
+        send(Step.LOGOUT, post("/api/auth/logout", "", accessToken, refreshToken.orElse(null)));
+    }
+
+    /**
+     * Zipf-like pick so the heavy users created by the seeder get most of the traffic.
+     */
+    private int pickUser() {
+        return 1 + (int) (users * Math.pow(ThreadLocalRandom.current().nextDouble(), 2));
+    }
+
+    private HttpResponse<String> send(Step step, HttpRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            errors.get(step).incrementAndGet();
+            throw e;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        recorders.get(step).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+        if (response.statusCode() >= 400) {
+            errors.get(step).incrementAndGet();
+            return null;
+        }
+        return response;
+    }
+
+    private HttpRequest post(String path, String body, String accessToken, String refreshToken) {
+        return request(path, accessToken, refreshToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String accessToken, String refreshToken) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+        if (accessToken != null && !accessToken.isEmpty()) {
+            builder.header("Authorization", "Bearer " + accessToken);
+        }
+        if (refreshToken != null) {
+            // The cookie is Secure, so HttpClient's cookie handler would not send it over plain HTTP
+            builder.header("Cookie", REFRESH_COOKIE + "=" + refreshToken);
+        }
+        return builder;
+    }
+
+    private static Optional<String> refreshCookie(HttpResponse<?> response) {
+        for (String header : response.headers().allValues("Set-Cookie")) {
+            if (header.startsWith(REFRESH_COOKIE + "=")) {
+                int end = header.indexOf(';');
+                String value = header.substring(REFRESH_COOKIE.length() + 1, end < 0 ? header.length() : end);
+                return value.isEmpty() ? Optional.empty() : Optional.of(value);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void think() throws InterruptedException {
+        if (thinkTimeMs > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(thinkTimeMs / 2, thinkTimeMs * 3 / 2 + 1));
+        }
+    }
+
+    private void report(long durationSeconds, int concurrency, Path report) throws IOException {
+        Map<String, JsonNode> baselineSteps = readBaseline();
+        ObjectNode json = objectMapper.createObjectNode()
+                .put("label", label)
+                .put("baseUrl", baseUri.toString())
+                .put("concurrency", concurrency)
+                .put("durationSeconds", durationSeconds);
+        ArrayNode steps = json.putArray("steps");
+
+        System.out.printf("%n%-16s %10s %8s %10s %10s %10s %10s %10s%n",
+                "step", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Step step : Step.values()) {
+            Histogram histogram = recorders.get(step).getIntervalHistogram();
+            long count = histogram.getTotalCount();
+            long errorCount = errors.get(step).get();
+            double throughput = (double) count / durationSeconds;
+            double p50 = millis(histogram.getValueAtPercentile(50.0));
+            double p99 = millis(histogram.getValueAtPercentile(99.0));
+            double p999 = millis(histogram.getValueAtPercentile(99.9));
+            double max = millis(histogram.getMaxValue());
+
+            System.out.printf("%-16s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    step, count, errorCount, throughput, p50, p99, p999, max);
+            steps.addObject()
+                    .put("step", step.name())
+                    .put("requests", count)
+                    .put("errors", errorCount)
+                    .put("throughputPerSecond", throughput)
+                    .put("p50Ms", p50)
+                    .put("p99Ms", p99)
+                    .put("p999Ms", p999)
+                    .put("maxMs", max);
+
+            JsonNode before = baselineSteps.get(step.name());
+            if (before != null) {
+                System.out.printf("%-16s %10s %8s %+9.1f%% %10s %+9.1f%%%n", "  vs baseline", "", "",
+                        change(before.path("throughputPerSecond").asDouble(), throughput), "",
+                        change(before.path("p99Ms").asDouble(), p99));
+            }
+        }
+
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(report.toFile(), json);
+        System.out.printf("%nReport written to %s%n", report.toAbsolutePath());
+    }
+
+    private Map<String, JsonNode> readBaseline() throws IOException {
+        Map<String, JsonNode> steps = new HashMap<>();
+        if (baseline == null) {
+            return steps;
+        }
+        JsonNode previous = objectMapper.readTree(baseline.toFile());
+        System.out.printf("%nComparing with %s (%s)%n", baseline, previous.path("label").asText("no label"));
+        for (JsonNode step : previous.path("steps")) {
+            steps.put(step.path("step").asText(), step);
+        }
+        return steps;
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> unknown = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                unknown.add(arg);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Expected --name=value options, got " + unknown);
+        }
+        return options;
+    }
+}
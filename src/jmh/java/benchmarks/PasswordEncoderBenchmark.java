@@ -0,0 +1,66 @@
+package benchmarks;
+
+import config.SecurityConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login throughput per core for each password encoder setting.
+ * <p>
+ * Runs single-threaded, so the reported ops/s for {@link #login} is the number of password
+ * checks one core can do per second with that setting. Multiply by the cores given to the
+ * hashing pool (apms.password-hashing.threads) to size a node.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class PasswordEncoderBenchmark {
+
+    /**
+     * encoder:bcryptStrength:argon2MemoryKib:argon2Iterations
+     */
+    @Param({"bcrypt:10:0:0", "bcrypt:12:0:0", "bcrypt:14:0:0", "argon2:10:19456:2", "argon2:10:47104:1"})
+    public String setting;
+
+    private static final String PASSWORD = "correct-horse-battery-staple";
+
+    private PasswordEncoder encoder;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        String[] parts = setting.split(":");
+        int argon2Memory = Math.max(Integer.parseInt(parts[2]), 1024);
+        int argon2Iterations = Math.max(Integer.parseInt(parts[3]), 1);
+        encoder = SecurityConfig.buildPasswordEncoder(parts[0], Integer.parseInt(parts[1]),
+                argon2Memory, argon2Iterations, 1);
+        storedHash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean login() {
+        return encoder.matches(PASSWORD, storedHash);
+    }
+
+    @Benchmark
+    public String hashNewPassword() {
+        return encoder.encode(PASSWORD);
+    }
+}
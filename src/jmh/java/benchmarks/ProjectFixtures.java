@@ -0,0 +1,54 @@
+package benchmarks;
+
+import tables.Projects;
+import tables.Users;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic project lists shaped like production rows, shared by the mapping and
+ * serialization benchmarks.
+ */
+final class ProjectFixtures {
+
+    private static final Projects.ProjectStatus[] STATUSES = Projects.ProjectStatus.values();
+    private static final Projects.ProjectPriority[] PRIORITIES = Projects.ProjectPriority.values();
+
+    private ProjectFixtures() {
+    }
+
+    static List<Projects> projects(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        Users owner = new Users("bench-owner", "bench-owner@example.com", "{noop}unused", null);
+        owner.setId(UUID.randomUUID());
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+        List<Projects> projects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Projects project = new Projects(
+                    "Project " + i,
+                    "Description for project " + i + " with a typical amount of text in it",
+                    STATUSES[random.nextInt(STATUSES.length)],
+                    PRIORITIES[random.nextInt(PRIORITIES.length)],
+                    LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365)),
+                    LocalDate.of(2026, 1, 1).plusDays(random.nextInt(365)),
+                    owner,
+                    i % 4 == 0);
+            project.setId(new UUID(random.nextLong(), random.nextLong()));
+            project.setProgress(random.nextInt(101));
+            project.setCreatedAt(now.minusDays(random.nextInt(400)));
+            project.setUpdatedAt(now.minusDays(random.nextInt(30)));
+            if (i % 3 == 0) {
+                project.setGithubUrl("https://github.com/bench-owner/project-" + i);
+                project.setIsGithubImport(true);
+            }
+            projects.add(project);
+        }
+        return projects;
+    }
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import dto.ProjectResponseGhub;
+import dto.ProjectsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the project list responses at 1k and 10k rows, with the same date
+ * handling as the application's ObjectMapper (java.time module, ISO strings).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProjectListSerializationBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private List<ProjectsResponse> projectsResponses;
+    private List<ProjectResponseGhub> ghubResponses;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        projectsResponses = ProjectFixtures.projects(rows).stream()
+                .map(project -> ProjectsResponse.fromEntity(project, project.getCreatedBy().getUsername(), null))
+                .toList();
+        ghubResponses = ProjectFixtures.projects(rows).stream()
+                .map(project -> ProjectResponseGhub.fromEntity(project, project.getCreatedBy().getUsername(), null))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] projectsResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(projectsResponses);
+    }
+
+    @Benchmark
+    public byte[] projectResponseGhub() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ghubResponses);
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import dto.ProjectResponseGhub;
+import dto.ProjectsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tables.Projects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping for a whole project list, without the repository lookups the service
+ * does around it. Run with -prof gc to see allocation per list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProjectMappingBenchmark {
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private List<Projects> projects;
+
+    @Setup
+    public void setUp() {
+        projects = ProjectFixtures.projects(rows);
+    }
+
+    @Benchmark
+    public List<ProjectsResponse> projectsResponse() {
+        List<ProjectsResponse> responses = new ArrayList<>(projects.size());
+        for (Projects project : projects) {
+            responses.add(ProjectsResponse.fromEntity(project, project.getCreatedBy().getUsername(), null));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<ProjectResponseGhub> projectResponseGhub() {
+        List<ProjectResponseGhub> responses = new ArrayList<>(projects.size());
+        for (Projects project : projects) {
+            responses.add(ProjectResponseGhub.fromEntity(project, project.getCreatedBy().getUsername(), null));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import config.RouteClassifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of classifying one request path: the precompiled trie versus the chained
+ * startsWith/endsWith checks the filters used to run (kept here as the baseline).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RouteClassifierBenchmark {
+
+    @Param({"/api/projects/123/progress", "/ConsoleApp/dashboard", "/css/app.css",
+            "/api/auth/login", "/swagger-ui/index.html", "/fonts/a.woff2", "/"})
+    public String path;
+
+    private final RouteClassifier classifier = new RouteClassifier();
+
+    @Benchmark
+    public RouteClassifier.Route trie() {
+        return classifier.classify(path);
+    }
+
+    @Benchmark
+    public boolean legacyChainedChecks() {
+        return legacyIsStaticResource(path) || legacyIsPublicEndpoint(path);
+    }
+
+    private static boolean legacyIsPublicEndpoint(String uri) {
+        return uri.startsWith("/api/auth/login") ||
+                uri.startsWith("/api/auth/register") ||
+                uri.startsWith("/api/auth/logout") ||
+                uri.startsWith("/api/auth/refresh") ||
+                uri.startsWith("/swagger-ui/") ||
+                uri.startsWith("/v3/api-docs/") ||
+                uri.equals("/swagger-ui.html") ||
+                uri.startsWith("/ConsoleApp/") ||
+                uri.equals("/favicon.ico") ||
+                uri.startsWith("/.well-known/");
+    }
+
+    private static boolean legacyIsStaticResource(String uri) {
+        if (uri.startsWith("/css/") ||
+                uri.startsWith("/js/") ||
+                uri.startsWith("/images/") ||
+                uri.startsWith("/webjars/") ||
+                uri.startsWith("/static/")) {
+            return true;
+        }
+        return uri.endsWith(".css") ||
+                uri.endsWith(".js") ||
+                uri.endsWith(".ico") ||
+                uri.endsWith(".png") ||
+                uri.endsWith(".jpg") ||
+                uri.endsWith(".jpeg") ||
+                uri.endsWith(".gif") ||
+                uri.endsWith(".svg") ||
+                uri.endsWith(".woff") ||
+                uri.endsWith(".woff2") ||
+                uri.endsWith(".ttf") ||
+                uri.endsWith(".eot") ||
+                uri.endsWith(".map") ||
+                uri.endsWith(".json");
+    }
+}
@@ -0,0 +1,98 @@
+package config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to latency, in the style of Netflix's Gradient2 limiter.
+ * <p>
+ * Two exponentially weighted round-trip averages are kept: a short one (the last ~10 requests)
+ * and a long one (~100). Each sample moves the limit a fifth ({@code SMOOTHING}) of the way to
+ * limit * gradient + sqrt(limit), where the gradient is {@code tolerance} * long / short clamped
+ * to [0.5, 1]. While the short average stays within {@code tolerance} of the long one the limit
+ * grows by sqrt(limit) / 5 per sample; once requests queue up and latency rises it shrinks in
+ * proportion, by at most about 10% per sample. Growth pauses while less than half the limit is
+ * in use, so an idle class doesn't inflate its limit; shrinking doesn't. Acquiring is a CAS loop
+ * on the in-flight count; only samples take a short lock.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 0.01;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Guarded by this
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limit needs 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Takes a slot if fewer than limit + {@code headroom} requests are in flight.
+     */
+    public boolean tryAcquire(int headroom) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit + headroom) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives the slot back and, if {@code sample} is set, feeds the request's latency into the limit.
+     */
+    public void release(long rttNanos, boolean sample) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (sample && rttNanos > 0) {
+            update(rttNanos, inFlightBefore);
+        }
+    }
+
+    private synchronized void update(long rttNanos, int inFlightBefore) {
+        if (shortRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * SHORT_WEIGHT;
+        longRtt += (rttNanos - longRtt) * LONG_WEIGHT;
+        // After a long overload the baseline lags far behind; let it catch up with reality
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+
+        double current = limit;
+        double gradient = Math.clamp(tolerance * longRtt / shortRtt, 0.5, 1.0);
+        double target = current * gradient + Math.sqrt(current);
+        double smoothed = current * (1 - SMOOTHING) + target * SMOOTHING;
+        if (inFlightBefore < current / 2) {
+            smoothed = Math.min(smoothed, current);
+        }
+        limit = Math.clamp(smoothed, minLimit, maxLimit);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
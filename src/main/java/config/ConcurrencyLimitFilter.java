@@ -0,0 +1,163 @@
+package config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sheds load before it queues: each limit class has an {@link AdaptiveConcurrencyLimit}, and a
+ * request over its class's limit gets an immediate 503 with Retry-After instead of waiting for
+ * a worker, a connection and finally a timeout.
+ * <p>
+ * Runs first in the chain so a rejected request costs almost nothing (no observation, access log
+ * or security work). /api/auth/refresh may exceed the auth limit by apms.limiter.refresh-reserve,
+ * so signed-in users keep their sessions while a burst of heavy admin requests drives latency up;
+ * the admin class also has its own, lower ceiling. Static resources, docs and actuator are not
+ * limited.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private static final String REFRESH_PATH = "/api/auth/refresh";
+    private static final byte[] REJECTION_BODY =
+            "{\"error\":\"Service busy\",\"message\":\"Please retry shortly\"}".getBytes(StandardCharsets.UTF_8);
+
+    enum LimitClass { AUTH, PROJECT_READ, PROJECT_WRITE, ADMIN, PAGES }
+
+    @Value("${apms.limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apms.limiter.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${apms.limiter.min-limit:4}")
+    private int minLimit;
+
+    @Value("${apms.limiter.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${apms.limiter.admin.max-limit:20}")
+    private int adminMaxLimit;
+
+    @Value("${apms.limiter.latency-tolerance:1.5}")
+    private double latencyTolerance;
+
+    @Value("${apms.limiter.refresh-reserve:10}")
+    private int refreshReserve;
+
+    @Value("${apms.limiter.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Autowired
+    private RouteClassifier routeClassifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<LimitClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(LimitClass.class);
+    private final Map<LimitClass, Counter> rejections = new EnumMap<>(LimitClass.class);
+
+    @PostConstruct
+    public void init() {
+        for (LimitClass limitClass : LimitClass.values()) {
+            int max = limitClass == LimitClass.ADMIN ? Math.min(adminMaxLimit, maxLimit) : maxLimit;
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                    Math.min(initialLimit, max), Math.min(minLimit, max), max, latencyTolerance);
+            limits.put(limitClass, limit);
+
+            String tag = limitClass.name().toLowerCase();
+            Gauge.builder("apms.limiter.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("apms.limiter.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Requests currently holding a concurrency slot")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            rejections.put(limitClass, Counter.builder("apms.limiter.rejected")
+                    .description("Requests shed with 503 because their class was at its concurrency limit")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        LimitClass limitClass = enabled ? limitClass(request) : null;
+        if (limitClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveConcurrencyLimit limit = limits.get(limitClass);
+        int headroom = limitClass == LimitClass.AUTH && REFRESH_PATH.equals(request.getRequestURI()) ? refreshReserve : 0;
+        if (!limit.tryAcquire(headroom)) {
+            rejections.get(limitClass).increment();
+            log.debug("Shedding {} {}: {} at limit {}", request.getMethod(), request.getRequestURI(),
+                    limitClass, limit.getLimit());
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            // Failures often return fast and would teach the limit the wrong latency
+            limit.release(System.nanoTime() - start, completed && response.getStatus() < 500);
+        }
+    }
+
+    private LimitClass limitClass(HttpServletRequest request) {
+        return switch (routeClassifier.classify(request).routeClass()) {
+            case AUTH -> LimitClass.AUTH;
+            case API -> isRead(request) ? LimitClass.PROJECT_READ : LimitClass.PROJECT_WRITE;
+            case ADMIN_API -> LimitClass.ADMIN;
+            case CONSOLE_PAGE, OTHER -> LimitClass.PAGES;
+            case STATIC, DOCS, ACTUATOR -> null;
+        };
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(REJECTION_BODY.length);
+        response.getOutputStream().write(REJECTION_BODY);
+    }
+}
@@ -0,0 +1,81 @@
+package config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many threads may wait for a pooled connection at once.
+ * <p>
+ * With platform threads Tomcat's worker pool bounded that implicitly. With virtual threads every
+ * request gets its own thread, so a spike turns into thousands of threads parked in Hikari for the
+ * whole connection timeout while Postgres is already saturated. Past apms.jdbc.guard.max-waiting
+ * callers fail straight away with {@link SQLTransientConnectionException}, which surfaces as a 503.
+ */
+public class JdbcConnectionGuard extends DelegatingDataSource implements MeterBinder {
+
+    private final int maxWaiting;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public JdbcConnectionGuard(DataSource targetDataSource, int maxWaiting) {
+        super(targetDataSource);
+        this.maxWaiting = maxWaiting;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        enter();
+        try {
+            return super.getConnection();
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        enter();
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private void enter() throws SQLTransientConnectionException {
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            throw new SQLTransientConnectionException(
+                    "More than " + maxWaiting + " threads already waiting for a database connection");
+        }
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public int getMaxWaiting() {
+        return maxWaiting;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("apms.jdbc.connection.waiting", waiting, AtomicInteger::get)
+                .description("Threads currently waiting for a pooled connection")
+                .register(registry);
+        FunctionCounter.builder("apms.jdbc.connection.rejected", rejected, LongAdder::doubleValue)
+                .description("Connection requests rejected because too many threads were already waiting")
+                .register(registry);
+    }
+}
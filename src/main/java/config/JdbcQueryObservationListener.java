@@ -0,0 +1,93 @@
+package config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Turns every JDBC statement into an observation (timer + child span of the current request),
+ * counts it against the current request's {@link RequestQueryStats} and hands it to
+ * {@link QueryDiagnostics} for slow-statement and N+1 detection.
+ */
+public class JdbcQueryObservationListener implements QueryExecutionListener {
+
+    private static final String OBSERVATION_KEY = JdbcQueryObservationListener.class.getName();
+    private static final String START_KEY = OBSERVATION_KEY + ".start";
+    private static final int MAX_STATEMENT_LENGTH = 2000;
+
+    private final Supplier<ObservationRegistry> observationRegistry;
+    private final Supplier<QueryDiagnostics> queryDiagnostics;
+
+    public JdbcQueryObservationListener(Supplier<ObservationRegistry> observationRegistry,
+                                        Supplier<QueryDiagnostics> queryDiagnostics) {
+        this.observationRegistry = observationRegistry;
+        this.queryDiagnostics = queryDiagnostics;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        Observation observation = Observation.createNotStarted("apms.jdbc.query", observationRegistry.get())
+                .contextualName("db.query")
+                .lowCardinalityKeyValue("db.system", "postgresql")
+                .lowCardinalityKeyValue("db.operation", operation(sql))
+                .highCardinalityKeyValue("db.statement", truncate(sql))
+                .start();
+        executionInfo.addCustomValue(OBSERVATION_KEY, observation);
+        executionInfo.addCustomValue(START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        Long start = executionInfo.getCustomValue(START_KEY, Long.class);
+        long elapsedNanos = start != null
+                ? System.nanoTime() - start
+                : TimeUnit.MILLISECONDS.toNanos(executionInfo.getElapsedTime());
+
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.recordQuery(elapsedNanos);
+        }
+        QueryDiagnostics diagnostics = queryDiagnostics.get();
+        if (diagnostics != null) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                diagnostics.onStatement(queryInfo.getQuery(), elapsedNanos, stats);
+            }
+        }
+
+        Observation observation = executionInfo.getCustomValue(OBSERVATION_KEY, Observation.class);
+        if (observation == null) {
+            return;
+        }
+        if (executionInfo.isBatch()) {
+            observation.highCardinalityKeyValue("db.batch.size", String.valueOf(executionInfo.getBatchSize()));
+        }
+        if (executionInfo.getResult() instanceof Integer updatedRows) {
+            observation.highCardinalityKeyValue("rows", String.valueOf(updatedRows));
+        }
+        if (!executionInfo.isSuccess() && executionInfo.getThrowable() != null) {
+            observation.error(executionInfo.getThrowable());
+        }
+        observation.stop();
+    }
+
+    static String operation(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "other" : trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    private static String truncate(String sql) {
+        return sql.length() <= MAX_STATEMENT_LENGTH ? sql : sql.substring(0, MAX_STATEMENT_LENGTH) + "...";
+    }
+}
@@ -1,5 +1,8 @@
 package config;
 
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,21 +18,34 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
 import service.JwtService;
 
 import java.io.IOException;
+import java.util.UUID;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    /**
+     * The authenticated user's id from the access token, for handlers that can answer without loading the user.
+     */
+    public static final String USER_ID_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".userId";
+
     @Autowired
     private JwtService jwtService;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private RouteClassifier routeClassifier;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -39,31 +55,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String requestURI = request.getRequestURI();
         String method = request.getMethod();
 
-        if (isPublicEndpoint(requestURI)) {
+        // Skip public routes, and requests an earlier filter (the metrics scrape token) already authenticated
+        if (!routeClassifier.classify(request).authenticates()
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
         log.debug("=== JWT Filter Processing: {} {} ===", method, requestURI);
-        try {
+        Observation observation = Observation.start("apms.jwt.authenticate", observationRegistry);
+        try (Observation.Scope scope = observation.openScope()) {
             String jwt = getJwtFromRequest(request);
             if (jwt != null && jwtService.isAccessTokenValid(jwt, jwtService.extractUsername(jwt))) {
                 String username = jwtService.extractUsername(jwt);
-                log.info("Valid JWT found for user: {}", username);
+                log.debug("Valid JWT found for user: {}", username);
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
                 log.debug("User authorities: {}", userDetails.getAuthorities());
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.info("Authentication set in SecurityContext for user: {} with roles: {}",
+                UUID userId = jwtService.extractUserId(jwt);
+                request.setAttribute(USER_ID_ATTRIBUTE, userId);
+                // The user UUID, like the service and GitHub spans, so telemetry joins on one key
+                ServerHttpObservationFilter.findObservationContext(request).ifPresent(context ->
+                        context.addHighCardinalityKeyValue(KeyValue.of("enduser.id", userId.toString())));
+                log.debug("Authentication set in SecurityContext for user: {} with roles: {}",
                         username, userDetails.getAuthorities());
             } else if (jwt != null) {
                 log.warn("Invalid JWT token for protected endpoint: {}", requestURI);
             } else {
-                log.warn("No JWT token found for protected endpoint: {}", requestURI);
+                log.debug("No JWT token found for protected endpoint: {}", requestURI);
             }
         } catch (Exception ex) {
+            observation.error(ex);
             log.error("Could not set user authentication in security context for URI: {}", requestURI, ex);
+        } finally {
+            observation.stop();
         }
         filterChain.doFilter(request, response);
     }
@@ -75,20 +102,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-
-    private boolean isPublicEndpoint(String requestURI) {
-        if (StaticResourceUtils.isStaticResource(requestURI)) {
-            return true;
-        }
-        return requestURI.startsWith("/api/auth/login") ||
-                requestURI.startsWith("/api/auth/register") ||
-                requestURI.startsWith("/api/auth/logout") ||
-                requestURI.startsWith("/api/auth/refresh") ||
-                requestURI.startsWith("/swagger-ui/") ||
-                requestURI.startsWith("/v3/api-docs/") ||
-                requestURI.equals("/swagger-ui.html") ||
-                requestURI.startsWith("/ConsoleApp/") ||
-                requestURI.equals("/favicon.ico") ||
-                requestURI.startsWith("/.well-known/");
-    }
 }
\ No newline at end of file
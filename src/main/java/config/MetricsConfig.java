@@ -0,0 +1,97 @@
+package config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.context.annotation.Role;
+import service.ProjectService;
+import service.TokenRotationService;
+import service.UserService;
+import tables.Users;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Metrics and tracing wiring that doesn't belong to a single service.
+ * <p>
+ * Loads metrics.properties (Prometheus exposure, histogram buckets, tracing defaults) at lower
+ * precedence than application properties, and observes every public {@link ProjectService},
+ * {@link UserService} and {@link TokenRotationService} method through an infrastructure advisor, so it
+ * is picked up by the same auto-proxy that applies @Transactional. Each call yields a timer and a
+ * child span, and is recorded on {@link RequestQueryStats} so {@link QueryDiagnostics} can attribute
+ * statements to the service method that issued them.
+ * Hikari pool and JVM metrics come from Spring Boot's auto-configuration once a registry exists.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    private static final Set<Class<?>> OBSERVED_SERVICES = Set.of(
+            ProjectService.class, UserService.class, TokenRotationService.class);
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceObservationAdvisor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return OBSERVED_SERVICES.contains(method.getDeclaringClass())
+                        && Modifier.isPublic(method.getModifiers());
+            }
+        };
+        pointcut.setClassFilter(clazz -> OBSERVED_SERVICES.stream().anyMatch(service -> service.isAssignableFrom(clazz)));
+
+        // Registry resolved on first call: advisors are created before most beans exist
+        MethodInterceptor interceptor = invocation -> {
+            Method method = invocation.getMethod();
+            String className = method.getDeclaringClass().getSimpleName();
+            Observation observation = Observation.createNotStarted("apms.service.method",
+                            observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP))
+                    .contextualName(className + "." + method.getName())
+                    .lowCardinalityKeyValue("class", className)
+                    .lowCardinalityKeyValue("method", method.getName());
+            for (Object argument : invocation.getArguments()) {
+                if (argument instanceof Users user && user.getId() != null) {
+                    observation.highCardinalityKeyValue("enduser.id", user.getId().toString());
+                    break;
+                }
+            }
+
+            RequestQueryStats queryStats = RequestQueryStats.current();
+            String previousServiceMethod = queryStats != null
+                    ? queryStats.enterServiceMethod(className + "." + method.getName())
+                    : null;
+
+            observation.start();
+            try (Observation.Scope scope = observation.openScope()) {
+                Object result = invocation.proceed();
+                if (result instanceof Collection<?> rows) {
+                    observation.highCardinalityKeyValue("rows", String.valueOf(rows.size()));
+                }
+                return result;
+            } catch (Throwable e) {
+                observation.error(e);
+                throw e;
+            } finally {
+                observation.stop();
+                if (queryStats != null) {
+                    queryStats.exitServiceMethod(previousServiceMethod);
+                }
+            }
+        };
+
+        return new DefaultPointcutAdvisor(pointcut, interceptor);
+    }
+}
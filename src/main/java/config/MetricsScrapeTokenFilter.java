@@ -0,0 +1,61 @@
+package config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Lets a Prometheus scraper reach /actuator/** with a static bearer token instead of an admin JWT.
+ * Disabled unless apms.metrics.scrape-token is set.
+ */
+@Component
+public class MetricsScrapeTokenFilter extends OncePerRequestFilter {
+
+    public static final String SCRAPER_ROLE = "METRICS_SCRAPER";
+
+    private static final String SCRAPER_PRINCIPAL = "metrics-scraper";
+
+    @Value("${apms.metrics.scrape-token:}")
+    private String scrapeToken;
+
+    @Autowired
+    private RouteClassifier routeClassifier;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        if (!scrapeToken.isEmpty()
+                && routeClassifier.classify(request).routeClass() == RouteClassifier.RouteClass.ACTUATOR
+                && matchesScrapeToken(request.getHeader("Authorization"))) {
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    SCRAPER_PRINCIPAL, null, List.of(new SimpleGrantedAuthority("ROLE_" + SCRAPER_ROLE)));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean matchesScrapeToken(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+        byte[] presented = authorization.substring(7).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(presented, scrapeToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
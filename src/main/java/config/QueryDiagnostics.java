@@ -0,0 +1,250 @@
+package config;
+
+import dto.QueryFinding;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slow-statement and N+1 detection on top of {@link JdbcQueryObservationListener}.
+ * <p>
+ * A statement is slow when it takes longer than apms.query-diagnostics.slow-threshold-ms. A request
+ * repeats a statement when the same shape (SQL with literals folded) runs more than
+ * apms.query-diagnostics.repeat-threshold times, e.g. a findById per row in a mapper loop.
+ * Findings are aggregated per kind, endpoint, service method and shape. The first occurrence of
+ * each finding is logged with a stack trace; later ones are logged at apms.query-diagnostics.log-sample-rate.
+ */
+@Component
+public class QueryDiagnostics {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryDiagnostics.class);
+
+    public enum Kind { SLOW, REPEATED }
+
+    private static final int MAX_SHAPE_LENGTH = 1000;
+    private static final int MAX_STACK_FRAMES = 12;
+    private static final String OUTSIDE_REQUEST = "(no request)";
+
+    @Value("${apms.query-diagnostics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apms.query-diagnostics.slow-threshold-ms:200}")
+    private long slowThresholdMs;
+
+    @Value("${apms.query-diagnostics.repeat-threshold:10}")
+    private int repeatThreshold;
+
+    @Value("${apms.query-diagnostics.log-sample-rate:0.05}")
+    private double logSampleRate;
+
+    @Value("${apms.query-diagnostics.max-findings:500}")
+    private int maxFindings;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<FindingKey, Finding> findings = new ConcurrentHashMap<>();
+
+    private long slowThresholdNanos;
+    private Counter slowCounter;
+    private Counter repeatedCounter;
+
+    private record FindingKey(Kind kind, String endpoint, String serviceMethod, String shape) {
+    }
+
+    private static final class Finding {
+        final LocalDateTime firstSeen = LocalDateTime.now();
+        volatile LocalDateTime lastSeen = firstSeen;
+        long occurrences;
+        long worst;
+        volatile List<String> stackSample = List.of();
+
+        synchronized void raiseWorst(long value) {
+            worst = Math.max(worst, value);
+        }
+
+        synchronized long record(long value) {
+            occurrences++;
+            worst = Math.max(worst, value);
+            lastSeen = LocalDateTime.now();
+            return occurrences;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        slowCounter = Counter.builder("apms.jdbc.findings")
+                .description("Slow JDBC statements and repeated statement shapes within one request")
+                .tag("kind", "slow")
+                .register(meterRegistry);
+        repeatedCounter = Counter.builder("apms.jdbc.findings")
+                .description("Slow JDBC statements and repeated statement shapes within one request")
+                .tag("kind", "repeated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Called by the JDBC listener after every statement, on the thread that ran it.
+     */
+    void onStatement(String sql, long elapsedNanos, RequestQueryStats stats) {
+        if (!enabled) {
+            return;
+        }
+
+        String shape = null;
+        if (stats != null) {
+            shape = shape(sql);
+            int count = stats.recordShape(shape);
+            if (count == repeatThreshold + 1) {
+                // Reported once per request and shape, when it first crosses the threshold
+                repeatedCounter.increment();
+                report(Kind.REPEATED, stats.getEndpoint(), stats.getServiceMethod(), shape, count,
+                        "Statement repeated more than " + repeatThreshold + " times in one request");
+            } else if (count > repeatThreshold + 1) {
+                Finding finding = findings.get(new FindingKey(Kind.REPEATED, stats.getEndpoint(),
+                        stats.getServiceMethod(), shape));
+                if (finding != null) {
+                    finding.raiseWorst(count);
+                }
+            }
+        }
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            slowCounter.increment();
+            report(Kind.SLOW,
+                    stats != null ? stats.getEndpoint() : OUTSIDE_REQUEST,
+                    stats != null ? stats.getServiceMethod() : null,
+                    shape != null ? shape : shape(sql),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    "Slow statement (" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms)");
+        }
+    }
+
+    private void report(Kind kind, String endpoint, String serviceMethod, String shape, long value, String message) {
+        FindingKey key = new FindingKey(kind, endpoint, serviceMethod, shape);
+        Finding finding = findings.get(key);
+        if (finding == null) {
+            if (findings.size() >= maxFindings) {
+                log.debug("Query findings table full, dropping {} finding for {}", kind, endpoint);
+                return;
+            }
+            finding = findings.computeIfAbsent(key, k -> new Finding());
+        }
+
+        long occurrences = finding.record(value);
+        boolean first = occurrences == 1;
+        if (!first && ThreadLocalRandom.current().nextDouble() >= logSampleRate) {
+            return;
+        }
+
+        StackSample stack = new StackSample();
+        finding.stackSample = stack.applicationFrames();
+        log.warn("{}: endpoint={} method={} occurrences={} sql={}",
+                message, endpoint, serviceMethod, occurrences, shape, stack);
+    }
+
+    public List<QueryFinding> snapshot() {
+        List<QueryFinding> result = new ArrayList<>(findings.size());
+        findings.forEach((key, finding) -> {
+            synchronized (finding) {
+                result.add(new QueryFinding(key.kind().name(), key.endpoint(), key.serviceMethod(), key.shape(),
+                        finding.occurrences, finding.worst, finding.firstSeen, finding.lastSeen,
+                        finding.stackSample));
+            }
+        });
+        result.sort(Comparator.comparingLong(QueryFinding::getOccurrences).reversed());
+        return result;
+    }
+
+    public void reset() {
+        findings.clear();
+    }
+
+    /**
+     * Folds literals so statements that differ only in values share a shape. Hibernate binds
+     * parameters, so this mostly matters for hand-written native queries.
+     */
+    static String shape(String sql) {
+        StringBuilder shape = new StringBuilder(Math.min(sql.length(), MAX_SHAPE_LENGTH));
+        int i = 0;
+        boolean pendingSpace = false;
+        while (i < sql.length() && shape.length() < MAX_SHAPE_LENGTH) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = shape.length() > 0;
+                i++;
+                continue;
+            }
+            if (pendingSpace) {
+                shape.append(' ');
+                pendingSpace = false;
+            }
+            if (c == '\'') {
+                // String literal, with '' as an escaped quote
+                i++;
+                while (i < sql.length()) {
+                    if (sql.charAt(i) == '\'' && (i + 1 >= sql.length() || sql.charAt(i + 1) != '\'')) {
+                        break;
+                    }
+                    i += sql.charAt(i) == '\'' ? 2 : 1;
+                }
+                shape.append('?');
+                i++;
+            } else if (Character.isDigit(c) && (shape.length() == 0 || !isIdentifierChar(shape.charAt(shape.length() - 1)))) {
+                while (i < sql.length() && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                shape.append('?');
+            } else {
+                shape.append(c);
+                i++;
+            }
+        }
+        return shape.toString();
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * Carries the call site into the warning; not thrown.
+     */
+    private static final class StackSample extends Throwable {
+        StackSample() {
+            super("Statement issued from", null, false, true);
+            setStackTrace(Arrays.stream(getStackTrace())
+                    .filter(frame -> isApplicationFrame(frame.getClassName()))
+                    .limit(MAX_STACK_FRAMES)
+                    .toArray(StackTraceElement[]::new));
+        }
+
+        List<String> applicationFrames() {
+            return Arrays.stream(getStackTrace()).map(StackTraceElement::toString).toList();
+        }
+
+        private static boolean isApplicationFrame(String className) {
+            return (className.startsWith("controller.") || className.startsWith("service.")
+                    || className.startsWith("repository.") || className.startsWith("config."))
+                    && !className.startsWith(QueryDiagnostics.class.getName())
+                    && !className.startsWith(JdbcQueryObservationListener.class.getName())
+                    && !className.contains("$$");
+        }
+    }
+}
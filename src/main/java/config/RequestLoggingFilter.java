@@ -1,30 +1,133 @@
 package config;
 
-import jakarta.servlet.*;
+import io.micrometer.common.KeyValue;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
 
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Writes one structured access-log line per request and records its latency per route class.
+ * <p>
+ * Runs right inside the HTTP server observation, so the request ID is in the MDC for everything
+ * logged downstream and the route and JDBC statement count land on the request span. Lines go to the
+ * {@code apms.access} logger (async appender in logback-spring.xml) and are sampled; errors and
+ * slow requests are always logged. Latency is recorded for every request, sampled or not.
+ */
 @Component
-public class RequestLoggingFilter implements Filter {
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private static final Logger accessLog = LoggerFactory.getLogger("apms.access");
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+
+    private static final int MAX_INBOUND_REQUEST_ID_LENGTH = 64;
+
+    @Value("${apms.access-log.sample-rate:0.1}")
+    private double sampleRate;
+
+    @Value("${apms.access-log.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+
+    @Value("${apms.access-log.include-static:false}")
+    private boolean includeStatic;
+
+    @Autowired
+    private RouteClassifier routeClassifier;
+
+    @Autowired
+    private RouteLatencyHistograms routeLatencyHistograms;
+
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
+    @Autowired
+    private StartupTimings startupTimings;
 
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
-            throws IOException, ServletException {
-
-        HttpServletRequest httpRequest = (HttpServletRequest) request;
-        String uri = httpRequest.getRequestURI();
-        String method = httpRequest.getMethod();
-        
-        if (!StaticResourceUtils.isStaticResource(uri)) {
-            log.info("{} request to: {} (Referer: {})", method, uri, httpRequest.getHeader("Referer"));
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        String requestId = requestId(request);
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        RouteClassifier.Route route = routeClassifier.classify(request);
+        RequestQueryStats queryStats = RequestQueryStats.begin(request, route.routeClass());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long durationNanos = System.nanoTime() - start;
+            routeLatencyHistograms.record(route.routeClass(), durationNanos);
+            ServerHttpObservationFilter.findObservationContext(request).ifPresent(context -> {
+                context.addLowCardinalityKeyValue(KeyValue.of("apms.route", route.routeClass().name()));
+                context.addHighCardinalityKeyValue(KeyValue.of("db.query.count",
+                        String.valueOf(queryStats.getQueryCount())));
+            });
+
+            int status = response.getStatus();
+            if (shouldLog(route, status, durationNanos) && accessLog.isInfoEnabled()) {
+                accessLog.info("method={} path={} route={} status={} durationMs={} queries={} queryMs={} ip={}",
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        route.routeClass(),
+                        status,
+                        TimeUnit.NANOSECONDS.toMicros(durationNanos) / 1000.0,
+                        queryStats.getQueryCount(),
+                        TimeUnit.NANOSECONDS.toMicros(queryStats.getQueryNanos()) / 1000.0,
+                        clientIpResolver.resolve(request));
+            }
+            RequestQueryStats.end();
+            MDC.remove(REQUEST_ID_MDC_KEY);
+            startupTimings.requestServed();
+        }
+    }
+
+    private boolean shouldLog(RouteClassifier.Route route, int status, long durationNanos) {
+        if (status >= 500 || durationNanos >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)) {
+            return true;
+        }
+        if (route.isStaticResource() && !includeStatic) {
+            return false;
         }
-        
-        chain.doFilter(request, response);
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Reuses a well-formed inbound request ID (e.g. from a proxy), otherwise makes a new one.
+     */
+    private static String requestId(HttpServletRequest request) {
+        String inbound = request.getHeader(REQUEST_ID_HEADER);
+        if (inbound != null && !inbound.isEmpty() && inbound.length() <= MAX_INBOUND_REQUEST_ID_LENGTH
+                && inbound.chars().allMatch(RequestLoggingFilter::isRequestIdChar)) {
+            return inbound;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+    }
+
+    private static boolean isRequestIdChar(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.';
     }
-}
\ No newline at end of file
+}
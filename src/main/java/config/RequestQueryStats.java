@@ -0,0 +1,106 @@
+package config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC statement count and time for the request running on the current thread, plus what
+ * {@link QueryDiagnostics} needs to attribute statements: the endpoint, the innermost observed
+ * service method and how often each statement shape ran.
+ * Started and ended by {@link RequestLoggingFilter}; fed by {@link JdbcQueryObservationListener}.
+ */
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private final HttpServletRequest request;
+    private final RouteClassifier.RouteClass routeClass;
+
+    private int queryCount;
+    private long queryNanos;
+    private String serviceMethod;
+    private Map<String, Integer> shapeCounts;
+
+    private RequestQueryStats(HttpServletRequest request, RouteClassifier.RouteClass routeClass) {
+        this.request = request;
+        this.routeClass = routeClass;
+    }
+
+    public static RequestQueryStats begin(HttpServletRequest request, RouteClassifier.RouteClass routeClass) {
+        RequestQueryStats stats = new RequestQueryStats(request, routeClass);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return stats for the current request, or null outside of one (scheduled jobs, hashing pool)
+     */
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    void recordQuery(long elapsedNanos) {
+        queryCount++;
+        queryNanos += elapsedNanos;
+    }
+
+    /**
+     * @return how many times this statement shape has now run in the request
+     */
+    int recordShape(String shape) {
+        if (shapeCounts == null) {
+            shapeCounts = new HashMap<>();
+        }
+        return shapeCounts.merge(shape, 1, Integer::sum);
+    }
+
+    Map<String, Integer> getShapeCounts() {
+        return shapeCounts == null ? Map.of() : shapeCounts;
+    }
+
+    /**
+     * Marks entry into an observed service method.
+     *
+     * @return the previous method, to hand back to {@link #exitServiceMethod(String)}
+     */
+    public String enterServiceMethod(String method) {
+        String previous = serviceMethod;
+        serviceMethod = method;
+        return previous;
+    }
+
+    public void exitServiceMethod(String previous) {
+        serviceMethod = previous;
+    }
+
+    public String getServiceMethod() {
+        return serviceMethod;
+    }
+
+    /**
+     * @return "METHOD /handler/pattern" once Spring MVC has picked a handler, otherwise the route class
+     */
+    public String getEndpoint() {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? request.getMethod() + " " + pattern : request.getMethod() + " " + routeClass;
+    }
+
+    public RouteClassifier.RouteClass getRouteClass() {
+        return routeClass;
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    public long getQueryNanos() {
+        return queryNanos;
+    }
+}
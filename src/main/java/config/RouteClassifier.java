@@ -0,0 +1,232 @@
+package config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classifies request paths once per request from a single declarative rule table.
+ * <p>
+ * {@link #RULES} is the source of truth for both {@link SecurityConfig}'s request matchers and
+ * the servlet filters. The rules are compiled once into a path-segment trie plus a table of
+ * static file extensions; classification walks the trie without allocating, and the result is
+ * stored as a request attribute so later filters get it for free.
+ */
+@Component
+public class RouteClassifier {
+
+    public static final String ROUTE_ATTRIBUTE = RouteClassifier.class.getName() + ".route";
+
+    public enum RouteClass {
+        CONSOLE_PAGE,
+        STATIC,
+        AUTH,
+        DOCS,
+        ADMIN_API,
+        API,
+        ACTUATOR,
+        OTHER
+    }
+
+    public enum Access {
+        PERMIT_ALL,
+        AUTHENTICATED,
+        ADMIN,
+        /** Admins or the metrics scraper */
+        OPS
+    }
+
+    /**
+     * A group of Spring-style path patterns ({@code /exact} or {@code /prefix/**}) sharing one classification.
+     *
+     * @param authenticates whether {@link JwtAuthenticationFilter} should look for a bearer token
+     */
+    public record Route(RouteClass routeClass, Access access, boolean authenticates, List<String> patterns) {
+
+        Route(RouteClass routeClass, Access access, boolean authenticates, String... patterns) {
+            this(routeClass, access, authenticates, List.of(patterns));
+        }
+
+        public boolean isStaticResource() {
+            return routeClass == RouteClass.STATIC;
+        }
+    }
+
+    /**
+     * Rules in {@link SecurityConfig} registration order. Patterns never overlap in a way where
+     * first-match and most-specific-match disagree (RouteClassifierTest checks this against Spring's matchers).
+     */
+    public static final List<Route> RULES = List.of(
+            new Route(RouteClass.CONSOLE_PAGE, Access.PERMIT_ALL, false, "/ConsoleApp/**"),
+            new Route(RouteClass.STATIC, Access.PERMIT_ALL, false,
+                    "/css/**", "/js/**", "/images/**", "/webjars/**", "/favicon.ico", "/static/**"),
+            new Route(RouteClass.AUTH, Access.PERMIT_ALL, false,
+                    "/api/auth/login", "/api/auth/register", "/api/auth/refresh", "/api/auth/logout", "/api/auth/logout-all"),
+            // Public, but reads the caller from the SecurityContext
+            new Route(RouteClass.AUTH, Access.PERMIT_ALL, true, "/api/auth/dashboard"),
+            new Route(RouteClass.DOCS, Access.PERMIT_ALL, false, "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html",
+                    "/openapi/**"),
+            new Route(RouteClass.OTHER, Access.PERMIT_ALL, false, "/.well-known/**"),
+            new Route(RouteClass.ACTUATOR, Access.PERMIT_ALL, false, "/actuator/health", "/actuator/health/**"),
+            new Route(RouteClass.ACTUATOR, Access.OPS, true, "/actuator/**"),
+            new Route(RouteClass.AUTH, Access.AUTHENTICATED, true, "/api/auth/verify"),
+            new Route(RouteClass.ADMIN_API, Access.ADMIN, true, "/api/admin/**"),
+            new Route(RouteClass.API, Access.AUTHENTICATED, true, "/api/**")
+    );
+
+    /**
+     * Unmatched paths that end in one of these extensions are static resources.
+     */
+    public static final List<String> STATIC_EXTENSIONS = List.of(
+            "css", "js", "ico", "png", "jpg", "jpeg", "gif", "svg", "woff", "woff2", "ttf", "eot", "map", "json");
+
+    static final Route STATIC_EXTENSION_ROUTE = new Route(RouteClass.STATIC, Access.PERMIT_ALL, false);
+    static final Route DEFAULT_ROUTE = new Route(RouteClass.OTHER, Access.PERMIT_ALL, true);
+
+    private final Node root = new Node();
+    private final String[][] extensionsByLength;
+
+    public RouteClassifier() {
+        for (Route route : RULES) {
+            for (String pattern : route.patterns()) {
+                insert(pattern, route);
+            }
+        }
+
+        int maxLength = STATIC_EXTENSIONS.stream().mapToInt(String::length).max().orElse(0);
+        extensionsByLength = new String[maxLength + 1][];
+        for (int length = 0; length <= maxLength; length++) {
+            int len = length;
+            extensionsByLength[length] = STATIC_EXTENSIONS.stream()
+                    .filter(extension -> extension.length() == len)
+                    .toArray(String[]::new);
+        }
+    }
+
+    /**
+     * Returns the route for the request, classifying it on first use and caching it on the request.
+     */
+    public Route classify(HttpServletRequest request) {
+        Object cached = request.getAttribute(ROUTE_ATTRIBUTE);
+        if (cached instanceof Route route) {
+            return route;
+        }
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (contextPath != null && !contextPath.isEmpty() && uri.startsWith(contextPath)) {
+            uri = uri.substring(contextPath.length());
+        }
+        Route route = classify(uri);
+        request.setAttribute(ROUTE_ATTRIBUTE, route);
+        return route;
+    }
+
+    public Route classify(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return DEFAULT_ROUTE;
+        }
+
+        Node node = root;
+        Route deepestWildcard = root.wildcard;
+        int start = 1;
+        int length = path.length();
+
+        while (true) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.child(path, start, end - start);
+            if (node == null) {
+                break;
+            }
+            if (node.wildcard != null) {
+                deepestWildcard = node.wildcard;
+            }
+            if (end == length) {
+                if (node.exact != null) {
+                    return node.exact;
+                }
+                break;
+            }
+            start = end + 1;
+        }
+
+        if (deepestWildcard != null) {
+            return deepestWildcard;
+        }
+        return hasStaticExtension(path) ? STATIC_EXTENSION_ROUTE : DEFAULT_ROUTE;
+    }
+
+    private boolean hasStaticExtension(String path) {
+        int dot = path.lastIndexOf('.');
+        if (dot < 0 || dot < path.lastIndexOf('/')) {
+            return false;
+        }
+        int extensionLength = path.length() - dot - 1;
+        if (extensionLength >= extensionsByLength.length) {
+            return false;
+        }
+        for (String extension : extensionsByLength[extensionLength]) {
+            if (path.regionMatches(dot + 1, extension, 0, extensionLength)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void insert(String pattern, Route route) {
+        boolean wildcard = pattern.endsWith("/**");
+        String path = wildcard ? pattern.substring(0, pattern.length() - 3) : pattern;
+
+        Node node = root;
+        if (!path.isEmpty()) {
+            for (String segment : path.substring(1).split("/", -1)) {
+                node = node.childOrCreate(segment);
+            }
+        }
+        if (wildcard) {
+            if (node.wildcard == null) {
+                node.wildcard = route;
+            }
+        } else if (node.exact == null) {
+            node.exact = route;
+        }
+    }
+
+    /**
+     * Trie node for one path segment. Children are kept in a small array and compared in place,
+     * so a lookup never creates substrings.
+     */
+    private static final class Node {
+        private String[] segments = new String[0];
+        private Node[] children = new Node[0];
+        private Route exact;
+        private Route wildcard;
+
+        Node child(String path, int offset, int length) {
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.length() == length && path.regionMatches(offset, segment, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(String segment) {
+            Node existing = child(segment, 0, segment.length());
+            if (existing != null) {
+                return existing;
+            }
+            Node node = new Node();
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            segments[segments.length - 1] = segment;
+            children[children.length - 1] = node;
+            return node;
+        }
+    }
+}
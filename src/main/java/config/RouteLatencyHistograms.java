@@ -0,0 +1,102 @@
+package config;
+
+import dto.RouteLatencyStats;
+import jakarta.annotation.PostConstruct;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request latency per route class, kept in HdrHistograms.
+ * <p>
+ * Request threads write into a {@link Recorder} (wait-free, no allocation); readers swap out the
+ * interval histogram and fold it into a cumulative one, so queries never block the hot path.
+ */
+@Component
+public class RouteLatencyHistograms {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    @Value("${apms.access-log.histogram.max-latency-ms:60000}")
+    private long maxLatencyMs;
+
+    private final Map<RouteClassifier.RouteClass, RouteHistogram> histograms =
+            new EnumMap<>(RouteClassifier.RouteClass.class);
+
+    private volatile LocalDateTime recordingSince = LocalDateTime.now();
+
+    private final class RouteHistogram {
+        final Recorder recorder = new Recorder(TimeUnit.MILLISECONDS.toMicros(maxLatencyMs), SIGNIFICANT_DIGITS);
+        final Histogram cumulative = new Histogram(TimeUnit.MILLISECONDS.toMicros(maxLatencyMs), SIGNIFICANT_DIGITS);
+        Histogram interval;
+
+        synchronized Histogram collect() {
+            interval = recorder.getIntervalHistogram(interval);
+            cumulative.add(interval);
+            return cumulative.copy();
+        }
+
+        synchronized void reset() {
+            recorder.reset();
+            cumulative.reset();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // Filled once up front; the map is read-only afterwards
+        for (RouteClassifier.RouteClass routeClass : RouteClassifier.RouteClass.values()) {
+            histograms.put(routeClass, new RouteHistogram());
+        }
+    }
+
+    public void record(RouteClassifier.RouteClass routeClass, long durationNanos) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(durationNanos), TimeUnit.MILLISECONDS.toMicros(maxLatencyMs));
+        histogram(routeClass).recorder.recordValue(Math.max(micros, 0L));
+    }
+
+    public List<RouteLatencyStats> snapshot() {
+        List<RouteLatencyStats> stats = new ArrayList<>();
+        for (RouteClassifier.RouteClass routeClass : RouteClassifier.RouteClass.values()) {
+            Histogram histogram = histogram(routeClass).collect();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            stats.add(new RouteLatencyStats(
+                    routeClass.name(),
+                    recordingSince,
+                    histogram.getTotalCount(),
+                    toMillis(histogram.getMean()),
+                    toMillis(histogram.getValueAtPercentile(50.0)),
+                    toMillis(histogram.getValueAtPercentile(90.0)),
+                    toMillis(histogram.getValueAtPercentile(99.0)),
+                    toMillis(histogram.getValueAtPercentile(99.9)),
+                    toMillis(histogram.getMaxValue())
+            ));
+        }
+        return stats;
+    }
+
+    public void reset() {
+        for (RouteClassifier.RouteClass routeClass : RouteClassifier.RouteClass.values()) {
+            histogram(routeClass).reset();
+        }
+        recordingSince = LocalDateTime.now();
+    }
+
+    private RouteHistogram histogram(RouteClassifier.RouteClass routeClass) {
+        return histograms.get(routeClass);
+    }
+
+    private static double toMillis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+}
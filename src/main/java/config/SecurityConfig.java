@@ -2,6 +2,7 @@ package config;
 
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,7 +10,9 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -18,6 +21,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -29,26 +34,59 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private MetricsScrapeTokenFilter metricsScrapeTokenFilter;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    public static final String ENCODER_BCRYPT = "bcrypt";
+    public static final String ENCODER_ARGON2 = "argon2";
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    // Encoder used for new hashes; existing hashes keep verifying with whatever they were created with
+    @Value("${apms.password.encoder:bcrypt}")
+    private String passwordEncoderId;
+
+    @Value("${apms.password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${apms.password.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${apms.password.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${apms.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
-                .authorizeHttpRequests(authz -> authz
-                        .requestMatchers("/ConsoleApp/**").permitAll()
-                        .requestMatchers("/css/**", "/js/**", "/images/**", "/webjars/**", "/favicon.ico", "/static/**").permitAll()
-                        .requestMatchers("/api/auth/login", "/api/auth/register", "/api/auth/refresh", "/api/auth/logout", "/api/auth/logout-all", "/api/auth/dashboard").permitAll()
-                        .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
-                        .requestMatchers("/api/auth/verify").authenticated()
-                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
-                        .requestMatchers("/api/**").authenticated()
-                        .anyRequest().permitAll()
-                )
+                .authorizeHttpRequests(authz -> {
+                    // Same rule table the filters classify against, in the same order
+                    for (RouteClassifier.Route route : RouteClassifier.RULES) {
+                        var matcher = authz.requestMatchers(route.patterns().toArray(String[]::new));
+                        switch (route.access()) {
+                            case PERMIT_ALL -> matcher.permitAll();
+                            case AUTHENTICATED -> matcher.authenticated();
+                            case ADMIN -> matcher.hasRole("ADMIN");
+                            case OPS -> matcher.hasAnyRole("ADMIN", MetricsScrapeTokenFilter.SCRAPER_ROLE);
+                        }
+                    }
+                    authz.anyRequest().permitAll();
+                })
                 .exceptionHandling(ex -> ex
                         .authenticationEntryPoint(jwtAuthenticationEntryPoint)
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(metricsScrapeTokenFilter, JwtAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -76,12 +114,19 @@ public class SecurityConfig {
                 "Origin",
                 "Access-Control-Request-Method",
                 "Access-Control-Request-Headers",
-                "X-CSRF-TOKEN"
+                "X-CSRF-TOKEN",
+                "If-None-Match"
         ));
 
         configuration.setExposedHeaders(Arrays.asList(
                 "Authorization",
-                "X-Total-Count"
+                "X-Total-Count",
+                "ETag",
+                "Retry-After",
+                RateLimitFilter.LIMIT_HEADER,
+                RateLimitFilter.REMAINING_HEADER,
+                RateLimitFilter.RESET_HEADER,
+                RateLimitFilter.POLICY_HEADER
         ));
 
         configuration.setAllowCredentials(true);
@@ -94,7 +139,33 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return buildPasswordEncoder(passwordEncoderId, bcryptStrength,
+                argon2MemoryKib, argon2Iterations, argon2Parallelism);
+    }
+
+    /**
+     * Builds a delegating encoder that writes {id}-prefixed hashes with the given settings.
+     * Legacy unprefixed hashes are verified as BCrypt and report {@code upgradeEncoding() == true},
+     * as do hashes made with weaker parameters, so they get re-hashed on the next successful login.
+     */
+    public static PasswordEncoder buildPasswordEncoder(String idForEncode, int bcryptStrength,
+                                                       int argon2MemoryKib, int argon2Iterations,
+                                                       int argon2Parallelism) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(ENCODER_BCRYPT, bcrypt);
+        encoders.put(ENCODER_ARGON2, new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                argon2Parallelism, argon2MemoryKib, argon2Iterations));
+
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalArgumentException("Unknown apms.password.encoder '" + idForEncode
+                    + "', expected one of " + encoders.keySet());
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
     }
 
     @Bean
@@ -0,0 +1,75 @@
+package config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures cold start from the JVM's point of view: time until the context is ready and until the
+ * first request has been served, both since JVM start so class loading and CDS show up.
+ * <p>
+ * Both are logged once with whether AOT-generated code and a CDS archive were in use, which makes
+ * runs with and without the "fast-start" build directly comparable, and exported as
+ * apms.startup.ready and apms.startup.first-request.
+ */
+@Component
+public class StartupTimings {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimings.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicBoolean firstRequestServed = new AtomicBoolean();
+    private volatile double readyMillis = Double.NaN;
+    private volatile double firstRequestMillis = Double.NaN;
+
+    @PostConstruct
+    public void registerMetrics() {
+        TimeGauge.builder("apms.startup.ready", this, TimeUnit.MILLISECONDS, timings -> timings.readyMillis)
+                .description("Time from JVM start until the application was ready")
+                .register(meterRegistry);
+        TimeGauge.builder("apms.startup.first-request", this, TimeUnit.MILLISECONDS, timings -> timings.firstRequestMillis)
+                .description("Time from JVM start until the first request was served")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Ready {} ms after JVM start ({} ms in Spring; AOT {}, CDS {})",
+                (long) readyMillis, event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+                onOff(AotDetector.useGeneratedArtifacts()), onOff(usesCdsArchive()));
+    }
+
+    /**
+     * Called by {@link RequestLoggingFilter} after every request; only the first one does any work.
+     */
+    public void requestServed() {
+        if (firstRequestServed.get() || !firstRequestServed.compareAndSet(false, true)) {
+            return;
+        }
+        firstRequestMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("First request served {} ms after JVM start", (long) firstRequestMillis);
+    }
+
+    private static boolean usesCdsArchive() {
+        return ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"));
+    }
+
+    private static String onOff(boolean value) {
+        return value ? "on" : "off";
+    }
+}
@@ -0,0 +1,78 @@
+package config;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Trace export and JDBC instrumentation.
+ * <p>
+ * Spans go to an OTLP collector when apms.tracing.otlp.endpoint is set, otherwise to the log if
+ * apms.tracing.logging-exporter is on (the "local" profile), otherwise nowhere. The DataSource is
+ * wrapped in a datasource-proxy so every statement becomes a child span with its SQL and goes
+ * through {@link QueryDiagnostics}.
+ */
+@Configuration
+public class TracingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(TracingConfig.class);
+
+    @Value("${apms.tracing.otlp.endpoint:}")
+    private String otlpEndpoint;
+
+    @Value("${apms.tracing.otlp.timeout-ms:10000}")
+    private long otlpTimeoutMs;
+
+    @Value("${apms.tracing.logging-exporter:false}")
+    private boolean loggingExporter;
+
+    @Bean
+    public SpanExporter apmsSpanExporter() {
+        if (!otlpEndpoint.isBlank()) {
+            log.info("Exporting traces over OTLP to {}", otlpEndpoint);
+            return OtlpHttpSpanExporter.builder()
+                    .setEndpoint(otlpEndpoint)
+                    .setTimeout(Duration.ofMillis(otlpTimeoutMs))
+                    .build();
+        }
+        if (loggingExporter) {
+            log.info("No OTLP endpoint configured, logging spans instead");
+            return LoggingSpanExporter.create();
+        }
+        return SpanExporter.composite();
+    }
+
+    @Bean
+    public static BeanPostProcessor dataSourceObservationPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry,
+                                                                       ObjectProvider<QueryDiagnostics> queryDiagnostics) {
+        JdbcQueryObservationListener listener = new JdbcQueryObservationListener(
+                () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP),
+                queryDiagnostics::getIfAvailable);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Guards the database against unbounded request concurrency.
+ * <p>
+ * The "virtual-threads" profile sets spring.threads.virtual.enabled, which moves Tomcat requests,
+ * the scheduler and the application task executor onto virtual threads. Request concurrency is then
+ * limited only by Hikari, so the pool is wrapped in a {@link JdbcConnectionGuard} (ahead of the
+ * tracing proxy in {@link TracingConfig}) and its size is checked against Postgres max_connections
+ * once the app is up. Pinning shows up through {@link VirtualThreadPinningMonitor}.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Value("${apms.jdbc.guard.expected-nodes:1}")
+    private int expectedNodes;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Environment environment;
+
+    /**
+     * Ordered so it runs before the tracing post-processor and wraps the raw pool. On by default
+     * only with virtual threads: on platform threads Tomcat's pool already bounds the waiters, and
+     * requests keep queueing in Hikari instead of being shed with 503s.
+     */
+    @Bean
+    public static BeanPostProcessor jdbcConnectionGuardPostProcessor(
+            @Value("${apms.jdbc.guard.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${apms.jdbc.guard.max-waiting:0}") int maxWaiting) {
+        return new OrderedBeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof HikariDataSource pool) {
+                    // Default: a few waiters per connection, enough to ride out a burst
+                    int limit = maxWaiting > 0 ? maxWaiting : pool.getMaximumPoolSize() * 4;
+                    log.info("Allowing at most {} threads to wait for one of {} database connections",
+                            limit, pool.getMaximumPoolSize());
+                    return new JdbcConnectionGuard(pool, limit);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkPoolSizing() {
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        log.info("Request execution on {} threads", virtualThreads ? "virtual" : "platform");
+
+        JdbcConnectionGuard guard = unwrap(JdbcConnectionGuard.class);
+        if (guard != null) {
+            guard.bindTo(meterRegistry);
+        } else if (virtualThreads) {
+            log.warn("Virtual threads are enabled without the JDBC connection guard (apms.jdbc.guard.enabled)");
+        }
+
+        HikariDataSource pool = unwrap(HikariDataSource.class);
+        if (pool == null) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet maxConnections = statement.executeQuery("SHOW max_connections")) {
+            if (!maxConnections.next()) {
+                return;
+            }
+            int serverLimit = Integer.parseInt(maxConnections.getString(1));
+            int clusterDemand = pool.getMaximumPoolSize() * expectedNodes;
+            if (clusterDemand > serverLimit) {
+                log.warn("Connection pools need {} connections ({} per node x {} nodes) but Postgres allows {}; "
+                                + "lower spring.datasource.hikari.maximum-pool-size",
+                        clusterDemand, pool.getMaximumPoolSize(), expectedNodes, serverLimit);
+            }
+        } catch (SQLException | NumberFormatException e) {
+            log.debug("Could not check max_connections: {}", e.getMessage());
+        }
+    }
+
+    private <T> T unwrap(Class<T> type) {
+        try {
+            return dataSource.isWrapperFor(type) ? dataSource.unwrap(type) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private interface OrderedBeanPostProcessor extends BeanPostProcessor, Ordered {
+        @Override
+        default int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
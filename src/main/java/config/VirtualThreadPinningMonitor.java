@@ -0,0 +1,124 @@
+package config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Surfaces virtual-thread pinning as metrics while virtual threads are enabled.
+ * <p>
+ * Streams the JFR events jdk.VirtualThreadPinned (a virtual thread blocked while holding its
+ * carrier, typically inside a synchronized block or a native frame) and jdk.VirtualThreadSubmitFailed.
+ * Pinning is timed per call site, the first application frame on the pinned stack, and each new
+ * site is logged once with its stack so it can be fixed.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final List<String> APPLICATION_PACKAGES = List.of(
+            "config.", "controller.", "service.", "repository.", "tables.", "dto.", "mio.");
+    private static final int MAX_SITES = 200;
+    private static final String OTHER_SITE = "other";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${apms.virtual-threads.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+    private Counter submitFailedCounter;
+
+    @PostConstruct
+    public void start() {
+        submitFailedCounter = Counter.builder("apms.virtual-threads.submit.failed")
+                .description("Virtual threads that could not be scheduled on a carrier")
+                .register(meterRegistry);
+
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.enable("jdk.VirtualThreadSubmitFailed");
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.onEvent("jdk.VirtualThreadSubmitFailed", event -> submitFailedCounter.increment());
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String site = site(event.getStackTrace());
+        // Sites come from code, so this is bounded in practice; the cap guards against surprises
+        if (!reportedSites.contains(site) && reportedSites.size() >= MAX_SITES) {
+            site = OTHER_SITE;
+        }
+
+        Timer.builder("apms.virtual-threads.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .tag("site", site)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        if (reportedSites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at {}:{}", event.getDuration().toMillis(), site,
+                    formatStack(event.getStackTrace()));
+        }
+    }
+
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return OTHER_SITE;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && isApplicationFrame(frame)) {
+                return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+            }
+        }
+        return OTHER_SITE;
+    }
+
+    private static boolean isApplicationFrame(RecordedFrame frame) {
+        String className = frame.getMethod().getType().getName();
+        return APPLICATION_PACKAGES.stream().anyMatch(className::startsWith);
+    }
+
+    private static String formatStack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return " (no stack trace)";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            builder.append(System.lineSeparator()).append("\tat ")
+                    .append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber());
+        }
+        return builder.toString();
+    }
+}
@@ -7,6 +7,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import repository.RefreshTokensRepository;
+import service.AuthResultCache;
+import service.AuthResultCache.AuthResult;
 import service.JwtService;
 import tables.RefreshTokens;
 
@@ -27,32 +29,60 @@ public class WebTokenValidator {
     @Autowired
     private RefreshTokensRepository refreshTokensRepository;
 
+    @Autowired
+    private AuthResultCache authResultCache;
+
     /**
-     * Validates refresh token from request cookies and database.
+     * Validates the refresh token cookie once and returns username and role with it.
+     * Results are cached briefly per token, so page navigation doesn't re-parse the JWT or query the database.
      *
      * @param request HTTP request containing cookies
-     * @return true if token is valid, false otherwise
+     * @return validation result, {@link AuthResult#INVALID} if the token is missing or invalid
      */
-    public boolean isValidRefreshToken(HttpServletRequest request) {
+    public AuthResult resolve(HttpServletRequest request) {
         String refreshToken = extractRefreshTokenFromCookies(request);
-        
+
         if (refreshToken == null) {
             log.debug("No refresh token found in cookies");
-            return false;
+            return AuthResult.INVALID;
         }
 
-        if (!jwtService.isTokenValid(refreshToken)) {
-            log.debug("Invalid refresh token");
-            return false;
-        }
+        return authResultCache.get(refreshToken, () -> validate(refreshToken));
+    }
 
-        Optional<RefreshTokens> tokenOpt = refreshTokensRepository.findByToken(refreshToken);
-        if (tokenOpt.isEmpty() || !tokenOpt.get().isValid()) {
-            log.debug("Refresh token not found or invalid in database");
-            return false;
-        }
+    /**
+     * Validates refresh token from request cookies and database.
+     *
+     * @param request HTTP request containing cookies
+     * @return true if token is valid, false otherwise
+     */
+    public boolean isValidRefreshToken(HttpServletRequest request) {
+        return resolve(request).valid();
+    }
 
-        return true;
+    private AuthResult validate(String refreshToken) {
+        try {
+            if (!jwtService.isTokenValid(refreshToken)) {
+                log.debug("Invalid refresh token");
+                return AuthResult.INVALID;
+            }
+
+            Optional<RefreshTokens> tokenOpt = refreshTokensRepository.findByToken(refreshToken);
+            if (tokenOpt.isEmpty() || !tokenOpt.get().isValid()) {
+                log.debug("Refresh token not found or invalid in database");
+                return AuthResult.INVALID;
+            }
+
+            RefreshTokens token = tokenOpt.get();
+            return new AuthResult(true,
+                    jwtService.extractUsername(refreshToken),
+                    jwtService.extractRole(refreshToken),
+                    token.getUserId(),
+                    token.getTokenFamily());
+        } catch (Exception e) {
+            log.debug("Refresh token validation failed: {}", e.getMessage());
+            return AuthResult.INVALID;
+        }
     }
 
     /**
@@ -82,15 +112,7 @@ public class WebTokenValidator {
      * @return username or null if token not found or invalid
      */
     public String extractUsernameFromCookies(HttpServletRequest request) {
-        try {
-            String refreshToken = extractRefreshTokenFromCookies(request);
-            if (refreshToken != null) {
-                return jwtService.extractUsername(refreshToken);
-            }
-        } catch (Exception e) {
-            log.error("Failed to extract username from token", e);
-        }
-        return null;
+        return resolve(request).username();
     }
 
     /**
@@ -100,14 +122,6 @@ public class WebTokenValidator {
      * @return role string or null if token not found or invalid
      */
     public String extractRoleFromCookies(HttpServletRequest request) {
-        try {
-            String refreshToken = extractRefreshTokenFromCookies(request);
-            if (refreshToken != null) {
-                return jwtService.extractRole(refreshToken);
-            }
-        } catch (Exception e) {
-            log.error("Failed to extract role from token", e);
-        }
-        return null;
+        return resolve(request).role();
     }
 }
\ No newline at end of file
@@ -8,13 +8,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import repository.ProjectRepository;
 import repository.UserRepository;
+import service.AuthResultCache;
 import service.ProjectService;
+import service.UserDataVersions;
 import tables.Projects;
 import tables.Users;
 
@@ -23,6 +26,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @RestController
+@Lazy
 @RequestMapping("/api/admin")
 @Tag(name = "Admin", description = "Admin management APIs")
 public class AdminController {
@@ -38,6 +42,12 @@ public class AdminController {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private AuthResultCache authResultCache;
+
+    @Autowired
+    private UserDataVersions userDataVersions;
+
     // ==================== USER MANAGEMENT ====================
 
     @GetMapping("/users")
@@ -94,11 +104,16 @@ public class AdminController {
             }
 
             Users existingUser = existingUserOpt.get();
+            boolean renamed = !Objects.equals(existingUser.getUsername(), updatedUser.getUsername());
             existingUser.setUsername(updatedUser.getUsername());
             existingUser.setEmail(updatedUser.getEmail());
             existingUser.setRole(updatedUser.getRole());
 
             Users saved = userRepository.save(existingUser);
+            userDataVersions.userChanged(userId);
+            if (renamed) {
+                namedProjectsChanged(projectRepository.findByCreatorOrAssignee(userId));
+            }
             return ResponseEntity.ok(saved);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -122,7 +137,10 @@ public class AdminController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
 
+            List<Projects> namedProjects = projectRepository.findByCreatorOrAssignee(userId);
             userRepository.deleteById(userId);
+            authResultCache.invalidateUser(userId);
+            namedProjectsChanged(namedProjects);
             return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -403,6 +421,7 @@ public class AdminController {
             Users.Role role = Users.Role.valueOf(newRole);
             user.setRole(role);
             userRepository.save(user);
+            userDataVersions.userChanged(userId);
 
             log.info("User role updated successfully for user: {}", user.getUsername());
             return ResponseEntity.ok(user);
@@ -414,6 +433,16 @@ public class AdminController {
         }
     }
 
+    /**
+     * Project lists show creator and assignee names, so other users' cached lists of these
+     * projects go stale when the user is renamed or deleted.
+     */
+    private void namedProjectsChanged(List<Projects> projects) {
+        for (Projects project : projects) {
+            userDataVersions.projectChanged(project.getId(), project.getCreatedBy().getId(), project.getAssignedTo());
+        }
+    }
+
     private Users getCurrentUser(Authentication authentication) {
         String username = authentication.getName();
         return userRepository.findByUsername(username)
@@ -0,0 +1,158 @@
+package controller;
+
+import config.QueryDiagnostics;
+import config.RouteLatencyHistograms;
+import dto.JfrDumpResponse;
+import dto.QueryFinding;
+import dto.RouteLatencyStats;
+import dto.ScheduledJobStatus;
+import dto.SecurityEventResponse;
+import dto.SecurityIncidentStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import service.ClusterJobRunner;
+import service.FlightRecorderService;
+import service.SecurityEventJournal;
+import service.SecurityIncidentMonitor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Admin-only operational endpoints. Access is enforced by the /api/admin/** rule in SecurityConfig,
+ * so these handlers never hit the database just to check the caller's role.
+ */
+@RestController
+@Lazy
+@RequestMapping("/api/admin/monitoring")
+@Tag(name = "Admin Monitoring", description = "Operational monitoring APIs (admin only)")
+public class AdminMonitoringController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminMonitoringController.class);
+
+    @Autowired
+    private SecurityIncidentMonitor securityIncidentMonitor;
+
+    @Autowired
+    private SecurityEventJournal securityEventJournal;
+
+    @Autowired
+    private RouteLatencyHistograms routeLatencyHistograms;
+
+    @Autowired
+    private QueryDiagnostics queryDiagnostics;
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
+    @Autowired
+    private ClusterJobRunner clusterJobRunner;
+
+    private static final int MAX_EVENT_QUERY_LIMIT = 1000;
+    private static final int MAX_JFR_DUMP_MINUTES = 24 * 60;
+
+    @Operation(summary = "Get security incident counters", description = "In-memory incident counters since startup")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/security-incidents")
+    public ResponseEntity<SecurityIncidentStats> getSecurityIncidents() {
+        return ResponseEntity.ok(new SecurityIncidentStats(
+                securityIncidentMonitor.getCountingSince(),
+                securityIncidentMonitor.count(SecurityIncidentMonitor.IncidentType.TOKEN_REUSE),
+                securityIncidentMonitor.count(SecurityIncidentMonitor.IncidentType.ROTATION_RATE_LIMIT),
+                securityIncidentMonitor.count(SecurityIncidentMonitor.IncidentType.ROTATION_LIMIT_EXCEEDED)
+        ));
+    }
+
+    @Operation(summary = "Query the security event journal",
+            description = "Newest first; filter by user id or username (long usernames match on their first 36 bytes), event type and time range")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/security-events")
+    public ResponseEntity<List<SecurityEventResponse>> getSecurityEvents(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) SecurityEventJournal.EventType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "200") int limit) {
+        int cappedLimit = Math.min(Math.max(limit, 1), MAX_EVENT_QUERY_LIMIT);
+        return ResponseEntity.ok(securityEventJournal.query(userId, username, type, from, to, cappedLimit));
+    }
+
+    @Operation(summary = "Get request latency per route class",
+            description = "Percentiles from the access-log HdrHistograms since startup or the last reset")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/latency")
+    public ResponseEntity<List<RouteLatencyStats>> getRouteLatency() {
+        return ResponseEntity.ok(routeLatencyHistograms.snapshot());
+    }
+
+    @Operation(summary = "Reset request latency histograms")
+    @SecurityRequirement(name = "bearerAuth")
+    @DeleteMapping("/latency")
+    public ResponseEntity<Void> resetRouteLatency() {
+        routeLatencyHistograms.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Get slow-query and N+1 findings",
+            description = "Slow statements and statements repeated within one request, per endpoint and service method")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/queries")
+    public ResponseEntity<List<QueryFinding>> getQueryFindings() {
+        return ResponseEntity.ok(queryDiagnostics.snapshot());
+    }
+
+    @Operation(summary = "Clear slow-query and N+1 findings")
+    @SecurityRequirement(name = "bearerAuth")
+    @DeleteMapping("/queries")
+    public ResponseEntity<Void> resetQueryFindings() {
+        queryDiagnostics.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Get scheduled job runs",
+            description = "Last cluster-wide run of each scheduled job (duration, rows affected, node) and this node's outcomes")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ScheduledJobStatus>> getScheduledJobs() {
+        return ResponseEntity.ok(clusterJobRunner.statuses());
+    }
+
+    @Operation(summary = "Dump the continuous JFR recording",
+            description = "Writes the last N minutes of the always-on Flight Recorder recording to a file on the server")
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/jfr/dump")
+    public ResponseEntity<JfrDumpResponse> dumpFlightRecording(@RequestParam(defaultValue = "10") int minutes) {
+        if (!flightRecorderService.isRecording()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        int cappedMinutes = Math.min(Math.max(minutes, 1), MAX_JFR_DUMP_MINUTES);
+        try {
+            Path file = flightRecorderService.dump(cappedMinutes);
+            return ResponseEntity.ok(new JfrDumpResponse(file.toString(), cappedMinutes, Files.size(file), LocalDateTime.now()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (IOException e) {
+            log.error("JFR dump failed: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package controller;
 
+import config.ClientIpResolver;
 import dto.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,15 +14,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import repository.UserRepository;
 import service.AuthenticationService;
 import service.JwtService;
+import service.LoginThrottleService;
+import service.PasswordHashingService;
+import service.PasswordHashingUnavailableException;
 import service.TokenRotationService;
 import tables.Users;
 
@@ -44,7 +49,7 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtService jwtService;
@@ -52,6 +57,12 @@ public class AuthController {
     @Autowired
     private TokenRotationService tokenRotationService;
 
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
     @Operation(summary = "Register new user", description = "Register a new user account")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User registered successfully"),
@@ -67,7 +78,7 @@ public class AuthController {
             Users newUser = new Users();
             newUser.setUsername(registerRequest.getUsername());
             newUser.setEmail(registerRequest.getEmail());
-            newUser.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+            newUser.setPassword(passwordHashingService.encode(registerRequest.getPassword()));
             newUser.setRole(Users.Role.USER);
             newUser.setEnabled(true);
             newUser.setCreatedAt(LocalDateTime.now());
@@ -85,6 +96,9 @@ public class AuthController {
                     "username", newUser.getUsername()
             ));
 
+        } catch (PasswordHashingUnavailableException e) {
+            log.warn("Registration rejected for {}: {}", registerRequest.getUsername(), e.getMessage());
+            return serviceBusy();
         } catch (DataIntegrityViolationException e) {
             log.error("Data integrity violation during registration: {}", e.getMessage());
 
@@ -133,10 +147,23 @@ public class AuthController {
     @Operation(summary = "Login user with Remember Me support")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login successful"),
-            @ApiResponse(responseCode = "401", description = "Authentication failed")
+            @ApiResponse(responseCode = "401", description = "Authentication failed"),
+            @ApiResponse(responseCode = "429", description = "Too many login attempts")
     })
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletResponse response) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) {
+        // Throttle before touching the database or the hashing pool
+        String clientIp = clientIpResolver.resolve(request);
+        long retryAfterSeconds = loginThrottleService.acquire(loginRequest.getUsername(), clientIp);
+        if (retryAfterSeconds > 0) {
+            log.warn("Login throttled for user: {} from {}", loginRequest.getUsername(), clientIp);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(new ErrorResponse("Too many login attempts", "Please wait before trying again."));
+        }
+
         try {
             log.info("Login attempt for user: {} (Remember Me: {})",
                     loginRequest.getUsername(),
@@ -165,6 +192,7 @@ public class AuthController {
             }
 
             response.addCookie(refreshTokenCookie);
+            loginThrottleService.recordSuccess(loginRequest.getUsername());
 
             log.info("Login successful for user: {}", authResponse.getUsername());
 
@@ -174,6 +202,17 @@ public class AuthController {
                     "Login successful"
             ));
 
+        } catch (PasswordHashingUnavailableException e) {
+            log.warn("Login rejected for user: {} - {}", loginRequest.getUsername(), e.getMessage());
+            return serviceBusy();
+        } catch (BadCredentialsException e) {
+            // Only wrong usernames and passwords count towards a lockout, not outages or internal errors
+            loginThrottleService.recordFailure(loginRequest.getUsername(), clientIp);
+            log.error("Login failed for user: {} - {}",
+                    loginRequest.getUsername(),
+                    e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse("Authentication failed", e.getMessage()));
         } catch (Exception e) {
             log.error("Login failed for user: {} - {}",
                     loginRequest.getUsername(),
@@ -400,6 +439,12 @@ public class AuthController {
         }
     }
 
+    private ResponseEntity<ErrorResponse> serviceBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse("Service busy", "Too many concurrent authentication requests. Please retry shortly."));
+    }
+
     private String extractTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
 
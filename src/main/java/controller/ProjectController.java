@@ -1,17 +1,31 @@
 package controller;
 
+import config.JwtAuthenticationFilter;
+import config.RequestQueryStats;
 import dto.*;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
 import repository.UserRepository;
 import service.GitHubService;
+import service.JfrEvents;
+import service.ProjectListCache;
 import service.ProjectService;
+import service.RequestCoalescer;
+import service.UserDataVersions;
 import service.UserService;
 import tables.Projects;
 import tables.Users;
@@ -29,6 +43,10 @@ import java.util.UUID;
 public class ProjectController {
 
     private static Logger log = LoggerFactory.getLogger(ProjectController.class);
+
+    // Let browsers keep the body but revalidate it with If-None-Match on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private ProjectService projectService;
 
@@ -41,19 +59,49 @@ public class ProjectController {
     @Autowired
     private GitHubService gitHubService;
 
+    @Autowired
+    private UserDataVersions userDataVersions;
+
+    @Autowired
+    private ProjectListCache projectListCache;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    // The body is pre-serialized JSON from ProjectListCache; describe its real shape for the API docs
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = ProjectsResponse.class))))
     @GetMapping
-    public ResponseEntity<List<ProjectsResponse>> getUserProjects(Authentication authentication) {
+    public ResponseEntity<byte[]> getUserProjects(Authentication authentication, WebRequest webRequest) {
+        JfrEvents.ProjectListServed servedEvent = new JfrEvents.ProjectListServed();
+        servedEvent.begin();
         try {
             Users user = userService.getCurrentUser(authentication);
 
             try {
-                gitHubService.autoSyncGitHubProjects(user);
+                // Duplicate tabs share one sync, which also keeps them from importing the same repository
+                // twice; one that gives up waiting skips the sync rather than racing the running one
+                requestCoalescer.execute("github-sync", user.getId().toString(), () -> {
+                    gitHubService.autoSyncGitHubProjects(user);
+                    return Boolean.TRUE;
+                }, () -> Boolean.FALSE);
             } catch (Exception e) {
                 log.warn("GitHub sync failed for user {}: {}", user.getUsername(), e.getMessage());
             }
 
-            List<ProjectsResponse> projects = projectService.getAccessibleProjectsForUser(user);
-            return ResponseEntity.ok(projects);
+            // After the sync so its imports count, before loading so the tag never runs ahead of the data
+            String etag = userDataVersions.etag("projects", user.getId());
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            ProjectListCache.CachedList projects = requestCoalescer.execute("projects", user.getId() + ":" + etag,
+                    () -> projectListCache.get(user.getId(), etag, () -> projectService.getAccessibleProjectsForUser(user)));
+            commitProjectListServed(servedEvent, "/api/projects", user, projects.rows());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(REVALIDATE)
+                    .eTag(etag)
+                    .body(projects.body());
 
         } catch (Exception e) {
             log.error("Error fetching projects: {}", e.getMessage(), e);
@@ -63,6 +111,8 @@ public class ProjectController {
 
     @GetMapping("/projects-updated")
     public ResponseEntity<List<ProjectResponseGhub>> getUserProjectsUpdated(Authentication authentication) {
+        JfrEvents.ProjectListServed servedEvent = new JfrEvents.ProjectListServed();
+        servedEvent.begin();
         try {
             Users user = userService.getCurrentUser(authentication);
 
@@ -73,6 +123,7 @@ public class ProjectController {
             }
 
             List<ProjectResponseGhub> projects = projectService.getAccessibleProjectsForUserGhub(user);
+            commitProjectListServed(servedEvent, "/api/projects/projects-updated", user, projects.size());
             return ResponseEntity.ok(projects);
 
         } catch (Exception e) {
@@ -81,6 +132,18 @@ public class ProjectController {
         }
     }
 
+    private void commitProjectListServed(JfrEvents.ProjectListServed event, String endpoint, Users user, int rows) {
+        event.end();
+        if (event.shouldCommit()) {
+            RequestQueryStats queryStats = RequestQueryStats.current();
+            event.endpoint = endpoint;
+            event.userId = String.valueOf(user.getId());
+            event.rows = rows;
+            event.queries = queryStats != null ? queryStats.getQueryCount() : 0;
+            event.commit();
+        }
+    }
+
     @GetMapping("/personal")
     public ResponseEntity<List<Projects>> getUserPersonalProjects(Authentication authentication) {
         try {
@@ -238,17 +301,27 @@ public class ProjectController {
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<ProjectStats> getProjectStats(Authentication authentication) {
+    public ResponseEntity<ProjectStats> getProjectStats(Authentication authentication, WebRequest webRequest) {
         try {
             if (authentication == null) {
                 log.error("Authentication is null!");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
 
+            // A poll with a current tag is answered from the token alone
+            UUID userId = (UUID) webRequest.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            String etag = userId != null ? userDataVersions.etag("stats", userId) : null;
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null;
+            }
             Users user = userService.getCurrentUser(authentication);
-            ProjectStats stats = projectService.getUserProjectStats(user);
+            if (etag == null) {
+                etag = userDataVersions.etag("stats", user.getId());
+            }
+            ProjectStats stats = requestCoalescer.execute("stats", user.getId() + ":" + etag,
+                    () -> projectService.getUserProjectStats(user));
 
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).body(stats);
         } catch (Exception e) {
             log.error("Error getting project stats", e);
             log.error("Exception type: {}", e.getClass().getName());
@@ -1,5 +1,6 @@
 package controller;
 
+import config.JwtAuthenticationFilter;
 import dto.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,16 +10,24 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
 import repository.UserRepository;
+import service.PasswordHashingUnavailableException;
+import service.UserDataVersions;
 import service.UserService;
 import tables.Users;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/user")
@@ -32,6 +41,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserDataVersions userDataVersions;
+
     @Operation(summary = "Get user profile", description = "Get the profile of the authenticated user")
     @SecurityRequirement(name = "bearerAuth")
     @ApiResponses(value = {
@@ -40,11 +52,18 @@ public class UserController {
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping("/profile")
-    public ResponseEntity<?> getUserProfile() {
+    public ResponseEntity<?> getUserProfile(WebRequest webRequest) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String username = authentication.getName();
 
+            // A poll with a current tag is answered from the token alone
+            UUID userId = (UUID) webRequest.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            String etag = userId != null ? userDataVersions.etag("profile", userId) : null;
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null;
+            }
+
             Optional<Users> userOpt = usersRepository.findByUsername(username);
             if (userOpt.isEmpty()) {
                 log.info("User not found: {}", username);
@@ -52,7 +71,10 @@ public class UserController {
             }
 
             Users user = userOpt.get();
-            return ResponseEntity.ok(new UserProfileResponse(
+            if (etag == null) {
+                etag = userDataVersions.etag("profile", user.getId());
+            }
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(etag).body(new UserProfileResponse(
                     user.getUsername(),
                     user.getUsernameGHUB(),
                     user.getEmail(),
@@ -112,6 +134,7 @@ public class UserController {
             if (hasChanges) {
                 user.setUpdatedAt(LocalDateTime.now());
                 updatedUser = usersRepository.save(user);
+                userDataVersions.userChanged(user.getId());
                 log.info("User profile updated successfully: {}", user.getUsername());
             } else {
                 log.info("No changes detected for user profile: {}", user.getUsername());
@@ -177,6 +200,11 @@ public class UserController {
 
             return ResponseEntity.ok(new MessageResponse("Password changed successfully"));
 
+        } catch (PasswordHashingUnavailableException e) {
+            log.warn("Password change rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse("Password change failed", "Server is busy. Please retry shortly."));
         } catch (Exception e) {
             log.error("Error changing password", e);
             return ResponseEntity.badRequest()
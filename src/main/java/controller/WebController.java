@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.context.request.RequestContextHolder;
 import repository.UserRepository;
+import service.AuthResultCache.AuthResult;
 
 import java.util.UUID;
 
@@ -33,7 +34,7 @@ public class WebController {
 
     @GetMapping("/")
     public String index() {
-        log.info("Index page requested, redirecting to login");
+        log.debug("Index page requested, redirecting to login");
         return "redirect:/login";
     }
 
@@ -45,70 +46,69 @@ public class WebController {
         } catch (Exception e) {
             log.error("Failed to extract referer from request context", e);
         }
-        log.info("Serving login page (Referer: {})", referer);
+        log.debug("Serving login page (Referer: {})", referer);
         return "login";
     }
 
     @GetMapping("/register")
     public String registerPage(Model model) {
-        log.info("Serving register page");
+        log.debug("Serving register page");
         return "register";
     }
 
     @GetMapping("/dashboard")
     public String dashboard(HttpServletRequest request, Model model) {
         return handleAuthenticatedPage(request, model, "dashboard", page -> {
-            String role = webTokenValidator.extractRoleFromCookies(request);
-            if (AppConstants.Security.ROLE_ADMIN.equals(role)) {
+            if (AppConstants.Security.ROLE_ADMIN.equals(model.getAttribute("role"))) {
                 long totalUsers = usersRepository.count();
                 model.addAttribute("totalUsers", totalUsers);
-                log.info("Admin user, adding total users count: {}", totalUsers);
+                log.debug("Admin user, adding total users count: {}", totalUsers);
             }
         });
     }
 
     @GetMapping("/projects")
     public String projectsPage(HttpServletRequest request, Model model) {
-        log.info("Projects page requested");
+        log.debug("Projects page requested");
         return handleAuthenticatedPage(request, model, "projects", null);
     }
 
     @GetMapping("/projects/create")
     public String createProjectPage(HttpServletRequest request, Model model) {
-        log.info("Create project page requested");
+        log.debug("Create project page requested");
         return handleAuthenticatedPage(request, model, "create-project", null);
     }
 
     @GetMapping("/projects/assigned")
     public String assignedProjectsPage(HttpServletRequest request, Model model) {
-        log.info("Assigned projects page requested");
+        log.debug("Assigned projects page requested");
         return handleAuthenticatedPage(request, model, "assigned-projects", null);
     }
 
     @GetMapping("/profile")
     public String profilePage(HttpServletRequest request, Model model) {
-        log.info("Profile page requested");
+        log.debug("Profile page requested");
         return handleAuthenticatedPage(request, model, "profile", null);
     }
 
     @GetMapping("/projects/edit/{projectId}")
     public String editProjectPage(@PathVariable UUID projectId, HttpServletRequest request, Model model) {
-        log.info("Edit project page requested for project ID: {}", projectId);
+        log.debug("Edit project page requested for project ID: {}", projectId);
         return handleAuthenticatedPage(request, model, "edit-project", page -> {
             model.addAttribute("projectId", projectId);
-            log.info("Added projectId to model: {}", projectId);
+            log.debug("Added projectId to model: {}", projectId);
         });
     }
 
     @GetMapping("/admin/projects")
     public String adminProjectsPage(HttpServletRequest request, Model model) {
-        log.info("Admin projects management page requested");
+        log.debug("Admin projects management page requested");
         return handleAdminPage(request, model, "admin-projects");
     }
 
     @GetMapping("/admin/users")
     public String adminUsersPage(HttpServletRequest request, Model model) {
-        log.info("Admin users management page requested");
+        log.debug("Admin users management page requested");
         return handleAdminPage(request, model, "admin-users");
     }
 
@@ -124,15 +124,16 @@ public class WebController {
     private String handleAuthenticatedPage(HttpServletRequest request, Model model,
                                           String viewName, java.util.function.Consumer<String> customLogic) {
         try {
-            if (!webTokenValidator.isValidRefreshToken(request)) {
+            AuthResult auth = webTokenValidator.resolve(request);
+            if (!auth.valid()) {
                 log.warn("Invalid or missing refresh token, redirecting to login");
                 return "redirect:" + AppConstants.Endpoints.CONSOLE_LOGIN;
             }
 
-            String username = webTokenValidator.extractUsernameFromCookies(request);
-            String role = webTokenValidator.extractRoleFromCookies(request);
+            String username = auth.username();
+            String role = auth.role();
 
-            log.info("User '{}' with role '{}' accessing {} page", username, role, viewName);
+            log.debug("User '{}' with role '{}' accessing {} page", username, role, viewName);
 
             model.addAttribute("username", username);
             model.addAttribute("role", role);
@@ -142,7 +143,7 @@ public class WebController {
                 customLogic.accept(viewName);
             }
 
-            log.info("Successfully serving {} page for user '{}'", viewName, username);
+            log.debug("Successfully serving {} page for user '{}'", viewName, username);
             return viewName;
 
         } catch (Exception e) {
@@ -161,25 +162,26 @@ public class WebController {
      */
     private String handleAdminPage(HttpServletRequest request, Model model, String viewName) {
         try {
-            if (!webTokenValidator.isValidRefreshToken(request)) {
+            AuthResult auth = webTokenValidator.resolve(request);
+            if (!auth.valid()) {
                 log.warn("Invalid or missing refresh token, redirecting to login");
                 return "redirect:" + AppConstants.Endpoints.CONSOLE_LOGIN;
             }
 
-            String username = webTokenValidator.extractUsernameFromCookies(request);
-            String role = webTokenValidator.extractRoleFromCookies(request);
+            String username = auth.username();
+            String role = auth.role();
 
             if (!AppConstants.Security.ROLE_ADMIN.equals(role)) {
                 log.warn("User '{}' with role '{}' attempted to access admin page: {}", username, role, viewName);
                 return "redirect:" + AppConstants.Endpoints.CONSOLE_DASHBOARD;
             }
 
-            log.info("Admin user '{}' accessing {} page", username, viewName);
+            log.debug("Admin user '{}' accessing {} page", username, viewName);
             model.addAttribute("username", username);
             model.addAttribute("role", role);
             model.addAttribute("isAuthenticated", true);
 
-            log.info("Successfully serving {} page for admin user '{}'", viewName, username);
+            log.debug("Successfully serving {} page for admin user '{}'", viewName, username);
             return viewName;
 
         } catch (Exception e) {
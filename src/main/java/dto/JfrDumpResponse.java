@@ -0,0 +1,36 @@
+package dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class JfrDumpResponse {
+    private String file;
+    private int minutes;
+    private long sizeBytes;
+    private LocalDateTime createdAt;
+
+    public JfrDumpResponse(String file, int minutes, long sizeBytes, LocalDateTime createdAt) {
+        this.file = file;
+        this.minutes = minutes;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = createdAt;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public int getMinutes() {
+        return minutes;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
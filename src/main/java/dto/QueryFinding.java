@@ -0,0 +1,72 @@
+package dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One aggregated query finding. {@code worst} is the longest duration in ms for SLOW findings
+ * and the most executions within one request for REPEATED ones.
+ */
+@Data
+public class QueryFinding {
+    private String kind;
+    private String endpoint;
+    private String serviceMethod;
+    private String statement;
+    private long occurrences;
+    private long worst;
+    private LocalDateTime firstSeen;
+    private LocalDateTime lastSeen;
+    private List<String> stackSample;
+
+    public QueryFinding(String kind, String endpoint, String serviceMethod, String statement, long occurrences,
+                        long worst, LocalDateTime firstSeen, LocalDateTime lastSeen, List<String> stackSample) {
+        this.kind = kind;
+        this.endpoint = endpoint;
+        this.serviceMethod = serviceMethod;
+        this.statement = statement;
+        this.occurrences = occurrences;
+        this.worst = worst;
+        this.firstSeen = firstSeen;
+        this.lastSeen = lastSeen;
+        this.stackSample = stackSample;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public String getServiceMethod() {
+        return serviceMethod;
+    }
+
+    public String getStatement() {
+        return statement;
+    }
+
+    public long getOccurrences() {
+        return occurrences;
+    }
+
+    public long getWorst() {
+        return worst;
+    }
+
+    public LocalDateTime getFirstSeen() {
+        return firstSeen;
+    }
+
+    public LocalDateTime getLastSeen() {
+        return lastSeen;
+    }
+
+    public List<String> getStackSample() {
+        return stackSample;
+    }
+}
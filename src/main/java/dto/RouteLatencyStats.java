@@ -0,0 +1,67 @@
+package dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class RouteLatencyStats {
+    private String route;
+    private LocalDateTime recordingSince;
+    private long count;
+    private double meanMs;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+
+    public RouteLatencyStats(String route, LocalDateTime recordingSince, long count, double meanMs,
+                             double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+        this.route = route;
+        this.recordingSince = recordingSince;
+        this.count = count;
+        this.meanMs = meanMs;
+        this.p50Ms = p50Ms;
+        this.p90Ms = p90Ms;
+        this.p99Ms = p99Ms;
+        this.p999Ms = p999Ms;
+        this.maxMs = maxMs;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public LocalDateTime getRecordingSince() {
+        return recordingSince;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMs() {
+        return meanMs;
+    }
+
+    public double getP50Ms() {
+        return p50Ms;
+    }
+
+    public double getP90Ms() {
+        return p90Ms;
+    }
+
+    public double getP99Ms() {
+        return p99Ms;
+    }
+
+    public double getP999Ms() {
+        return p999Ms;
+    }
+
+    public double getMaxMs() {
+        return maxMs;
+    }
+}
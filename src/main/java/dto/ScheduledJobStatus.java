@@ -0,0 +1,103 @@
+package dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One scheduled job as seen by the admin view: the last cluster-wide run (from whichever node
+ * did it) plus this node's own triggers, skips and last outcome.
+ */
+@Data
+public class ScheduledJobStatus {
+    private String name;
+    private long intervalSeconds;
+    private LocalDateTime lastStartedAt;
+    private LocalDateTime lastFinishedAt;
+    private Long lastDurationMs;
+    private Long lastRowsAffected;
+    private String lastNode;
+    private long clusterRunCount;
+    private boolean runningHere;
+    private String lastOutcomeHere;
+    private LocalDateTime lastAttemptHere;
+    private String lastErrorHere;
+    private long runsHere;
+    private long skipsHere;
+
+    public ScheduledJobStatus(String name, long intervalSeconds, LocalDateTime lastStartedAt,
+                              LocalDateTime lastFinishedAt, Long lastDurationMs, Long lastRowsAffected,
+                              String lastNode, long clusterRunCount, boolean runningHere, String lastOutcomeHere,
+                              LocalDateTime lastAttemptHere, String lastErrorHere, long runsHere, long skipsHere) {
+        this.name = name;
+        this.intervalSeconds = intervalSeconds;
+        this.lastStartedAt = lastStartedAt;
+        this.lastFinishedAt = lastFinishedAt;
+        this.lastDurationMs = lastDurationMs;
+        this.lastRowsAffected = lastRowsAffected;
+        this.lastNode = lastNode;
+        this.clusterRunCount = clusterRunCount;
+        this.runningHere = runningHere;
+        this.lastOutcomeHere = lastOutcomeHere;
+        this.lastAttemptHere = lastAttemptHere;
+        this.lastErrorHere = lastErrorHere;
+        this.runsHere = runsHere;
+        this.skipsHere = skipsHere;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public LocalDateTime getLastStartedAt() {
+        return lastStartedAt;
+    }
+
+    public LocalDateTime getLastFinishedAt() {
+        return lastFinishedAt;
+    }
+
+    public Long getLastDurationMs() {
+        return lastDurationMs;
+    }
+
+    public Long getLastRowsAffected() {
+        return lastRowsAffected;
+    }
+
+    public String getLastNode() {
+        return lastNode;
+    }
+
+    public long getClusterRunCount() {
+        return clusterRunCount;
+    }
+
+    public boolean isRunningHere() {
+        return runningHere;
+    }
+
+    public String getLastOutcomeHere() {
+        return lastOutcomeHere;
+    }
+
+    public LocalDateTime getLastAttemptHere() {
+        return lastAttemptHere;
+    }
+
+    public String getLastErrorHere() {
+        return lastErrorHere;
+    }
+
+    public long getRunsHere() {
+        return runsHere;
+    }
+
+    public long getSkipsHere() {
+        return skipsHere;
+    }
+}
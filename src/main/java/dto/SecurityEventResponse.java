@@ -0,0 +1,43 @@
+package dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class SecurityEventResponse {
+    private LocalDateTime timestamp;
+    private String type;
+    private UUID userId;
+    private String username;
+    private String detail;
+
+    public SecurityEventResponse(LocalDateTime timestamp, String type, UUID userId, String username, String detail) {
+        this.timestamp = timestamp;
+        this.type = type;
+        this.userId = userId;
+        this.username = username;
+        this.detail = detail;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+}
@@ -0,0 +1,37 @@
+package dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class SecurityIncidentStats {
+    private LocalDateTime countingSince;
+    private long tokenReuseDetections;
+    private long rotationRateLimitHits;
+    private long rotationLimitExceeded;
+
+    public SecurityIncidentStats(LocalDateTime countingSince, long tokenReuseDetections,
+                                 long rotationRateLimitHits, long rotationLimitExceeded) {
+        this.countingSince = countingSince;
+        this.tokenReuseDetections = tokenReuseDetections;
+        this.rotationRateLimitHits = rotationRateLimitHits;
+        this.rotationLimitExceeded = rotationLimitExceeded;
+    }
+
+    public LocalDateTime getCountingSince() {
+        return countingSince;
+    }
+
+    public long getTokenReuseDetections() {
+        return tokenReuseDetections;
+    }
+
+    public long getRotationRateLimitHits() {
+        return rotationRateLimitHits;
+    }
+
+    public long getRotationLimitExceeded() {
+        return rotationLimitExceeded;
+    }
+}
@@ -14,12 +14,30 @@ import java.util.UUID;
 @Repository
 public interface ProjectRepository extends JpaRepository<Projects, UUID> {
 
-    List<Projects> findByCreatedByAndIsGlobalFalse(Users createdBy);
+    // Queries whose entities leave the service (serialized or mapped by controllers) fetch the
+    // creator with them: there is no open session to load it lazily afterwards.
 
-    List<Projects> findByIsGlobalTrueAndAssignedTo(UUID assignedTo);
+    @Query("SELECT p FROM Projects p JOIN FETCH p.createdBy WHERE p.createdBy = :createdBy AND p.isGlobal = false")
+    List<Projects> findByCreatedByAndIsGlobalFalse(@Param("createdBy") Users createdBy);
 
+    @Query("SELECT p FROM Projects p JOIN FETCH p.createdBy WHERE p.isGlobal = true AND p.assignedTo = :assignedTo")
+    List<Projects> findByIsGlobalTrueAndAssignedTo(@Param("assignedTo") UUID assignedTo);
+
+    @Query("SELECT p FROM Projects p JOIN FETCH p.createdBy WHERE p.isGlobal = true")
     List<Projects> findByIsGlobalTrue();
 
+    @Query("SELECT p FROM Projects p JOIN FETCH p.createdBy WHERE p.id = :id")
+    Optional<Projects> findByIdWithCreator(@Param("id") UUID id);
+
+    @Query("SELECT p FROM Projects p JOIN FETCH p.createdBy")
+    List<Projects> findAllWithCreator();
+
+    /**
+     * Projects that show the user's name to others, as creator or assignee.
+     */
+    @Query("SELECT p FROM Projects p JOIN FETCH p.createdBy WHERE p.createdBy.id = :userId OR p.assignedTo = :userId")
+    List<Projects> findByCreatorOrAssignee(@Param("userId") UUID userId);
+
     long countByAssignedTo(UUID userId);
 
     List<Projects> findByStatus(Projects.ProjectStatus status);
@@ -52,12 +52,21 @@ public interface RefreshTokensRepository extends JpaRepository<RefreshTokens, UU
     @Query("SELECT rt FROM RefreshTokens rt WHERE rt.rotationCount > :maxRotations AND rt.isRevoked = false")
     List<RefreshTokens> findTokensWithHighRotationCount(@Param("maxRotations") int maxRotations);
 
+    @Query("SELECT COUNT(rt) FROM RefreshTokens rt WHERE rt.rotationCount > :maxRotations AND rt.isRevoked = false")
+    long countTokensWithHighRotationCount(@Param("maxRotations") int maxRotations);
+
     @Query("SELECT rt FROM RefreshTokens rt WHERE rt.lastRotatedAt > :since AND rt.tokenFamily = :tokenFamily")
     List<RefreshTokens> findRecentlyRotatedTokensInFamily(@Param("tokenFamily") String tokenFamily, @Param("since") LocalDateTime since);
 
     @Query("SELECT rt FROM RefreshTokens rt WHERE rt.revokedDueToReuse = true AND rt.revokedAt > :since")
     List<RefreshTokens> findTokensRevokedForReuse(@Param("since") LocalDateTime since);
 
+    @Query("SELECT COUNT(rt) FROM RefreshTokens rt WHERE rt.revokedDueToReuse = true AND rt.revokedAt > :since")
+    long countTokensRevokedForReuse(@Param("since") LocalDateTime since);
+
+    @Query("SELECT COUNT(rt) FROM RefreshTokens rt WHERE rt.userId = :userId AND rt.isRevoked = false AND rt.expiresAt > :now")
+    long countActiveTokensForUser(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+
     @Query("SELECT SUM(rt.rotationCount) FROM RefreshTokens rt WHERE rt.userId = :userId")
     Long getTotalRotationCountForUser(@Param("userId") UUID userId);
 }
@@ -0,0 +1,9 @@
+package repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import tables.ScheduledJobs;
+
+@Repository
+public interface ScheduledJobsRepository extends JpaRepository<ScheduledJobs, String> {
+}
@@ -1,9 +1,11 @@
 package repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import tables.Users;
 
 import java.util.List;
@@ -31,4 +33,9 @@ public interface UserRepository extends JpaRepository<Users, UUID> {
     long countByRole(Users.Role role);
 
     List<Users> findByRoleAndEnabledTrue(Users.Role role);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Users u SET u.password = :newHash WHERE u.id = :userId AND u.password = :oldHash")
+    int replacePasswordHash(@Param("userId") UUID userId, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
\ No newline at end of file
@@ -0,0 +1,400 @@
+package service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user and per-IP request quotas for the API, configured per route in a properties file
+ * (apms.rate-limit.quotas, rate-limits.properties by default) that is re-read whenever it changes.
+ * <p>
+ * A request is charged to the most specific quota matching its method and path: one token from the
+ * quota's per-user bucket when the caller is signed in, and one from its per-IP bucket. Buckets are
+ * {@link TokenBucket}s held in a fixed number of independent stripes, each bounded to its share of
+ * apms.rate-limit.max-entries, so making room only ever scans one stripe. Full (idle) buckets are
+ * indistinguishable from new ones and are evicted freely. When a reload changes a quota's limits,
+ * its buckets are replaced on next use.
+ */
+@Service
+public class ApiRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiRateLimiter.class);
+
+    private static final PathPatternParser PATTERN_PARSER = new PathPatternParser();
+    private static final Comparator<Quota> MOST_SPECIFIC_FIRST =
+            Comparator.<Quota, PathPattern>comparing(Quota::pattern, PathPattern.SPECIFICITY_COMPARATOR)
+                    .thenComparing(quota -> quota.method() == null);
+
+    @Value("${apms.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apms.rate-limit.quotas:classpath:rate-limits.properties}")
+    private String quotasLocation;
+
+    @Value("${apms.rate-limit.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${apms.rate-limit.stripes:16}")
+    private int stripeCount;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile List<Quota> quotas = List.of();
+    private volatile long quotasLastModified;
+    private Stripe[] stripes;
+    private int stripeCapacity;
+
+    /**
+     * Requests allowed per period; the bucket holds a full period's worth as its burst.
+     */
+    public record Limit(int requests, Duration period) {
+
+        TokenBucket newBucket(long nowNanos) {
+            return new TokenBucket(requests, Math.max(1L, period.toNanos() / requests), nowNanos);
+        }
+
+        /**
+         * The RateLimit-Policy form, e.g. "60;w=60".
+         */
+        String policy() {
+            return requests + ";w=" + Math.max(1L, period.toSeconds());
+        }
+    }
+
+    /**
+     * One matchable entry of a quota; a quota listing several patterns yields several of these that
+     * share the name, and so the buckets.
+     */
+    record Quota(String name, String method, PathPattern pattern, Limit user, Limit ip,
+                 Counter allowed, Counter rejectedUser, Counter rejectedIp) {
+
+        boolean matches(String requestMethod, PathContainer path) {
+            return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+        }
+    }
+
+    /**
+     * Outcome of {@link #acquire}, describing the tighter of the buckets that were charged.
+     *
+     * @param resetSeconds      seconds until that bucket is full again
+     * @param retryAfterSeconds seconds until it has a token again (0 if it has one now)
+     */
+    public record Decision(boolean allowed, String quota, int limit, long remaining,
+                           long resetSeconds, long retryAfterSeconds, String policy) {
+    }
+
+    private record Entry(Limit limit, TokenBucket bucket) {
+    }
+
+    private static final class Stripe {
+        final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    }
+
+    @PostConstruct
+    public void init() {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount));
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        stripeCapacity = Math.max(1, maxEntries / count);
+
+        Gauge.builder("apms.ratelimit.tracked", this, ApiRateLimiter::trackedEntries)
+                .description("Rate limit buckets currently held in memory")
+                .register(meterRegistry);
+        Gauge.builder("apms.ratelimit.quotas", this, limiter -> limiter.quotas.size())
+                .description("Route patterns with a rate limit quota")
+                .register(meterRegistry);
+
+        if (!enabled) {
+            log.info("API rate limiting disabled");
+            return;
+        }
+        // A broken file at startup is a deployment error; on reload we keep the last good quotas
+        if (!reload()) {
+            throw new IllegalStateException("Could not load rate limit quotas from " + quotasLocation);
+        }
+    }
+
+    /**
+     * Charges a request to its quota.
+     *
+     * @param user the authenticated username, or null for anonymous requests
+     * @return null if no quota applies, otherwise the decision and the values for RateLimit-* headers
+     */
+    public Decision acquire(String method, String path, String user, String clientIp) {
+        if (!enabled) {
+            return null;
+        }
+        Quota quota = match(method, path);
+        if (quota == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        Entry ipEntry = quota.ip() != null && clientIp != null ? entry("i|" + quota.name() + "|" + clientIp, quota.ip(), now) : null;
+        Entry userEntry = quota.user() != null && user != null ? entry("u|" + quota.name() + "|" + user, quota.user(), now) : null;
+
+        // Check both buckets before charging either, so a user over quota doesn't drain the IP's share
+        if (ipEntry != null && ipEntry.bucket().nanosUntilAvailable(now) > 0) {
+            quota.rejectedIp().increment();
+            return decision(false, quota, ipEntry, now);
+        }
+        if (userEntry != null && userEntry.bucket().nanosUntilAvailable(now) > 0) {
+            quota.rejectedUser().increment();
+            return decision(false, quota, userEntry, now);
+        }
+        // A concurrent request can still take the last token in between; then this one is rejected
+        if (ipEntry != null && !ipEntry.bucket().tryConsume(now)) {
+            quota.rejectedIp().increment();
+            return decision(false, quota, ipEntry, now);
+        }
+        if (userEntry != null && !userEntry.bucket().tryConsume(now)) {
+            quota.rejectedUser().increment();
+            return decision(false, quota, userEntry, now);
+        }
+        quota.allowed().increment();
+        if (userEntry == null) {
+            return ipEntry != null ? decision(true, quota, ipEntry, now) : null;
+        }
+        if (ipEntry == null) {
+            return decision(true, quota, userEntry, now);
+        }
+        Entry tighter = ipEntry.bucket().remaining(now) < userEntry.bucket().remaining(now) ? ipEntry : userEntry;
+        return decision(true, quota, tighter, now);
+    }
+
+    @Scheduled(fixedDelayString = "${apms.rate-limit.reload-interval-ms:10000}")
+    public void reloadIfChanged() {
+        if (!enabled) {
+            return;
+        }
+        Resource resource = resourceLoader.getResource(quotasLocation);
+        try {
+            if (resource.lastModified() != quotasLastModified) {
+                reload();
+            }
+        } catch (IOException e) {
+            log.debug("Cannot check rate limit quotas {} for changes: {}", quotasLocation, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleEntries() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            removed += evictIdle(stripe, now);
+        }
+        if (removed > 0) {
+            log.debug("Evicted {} idle rate limit buckets", removed);
+        }
+    }
+
+    /**
+     * Parses the quota file and swaps it in.
+     *
+     * @return false if the file couldn't be read or parsed; the current quotas stay in place
+     */
+    boolean reload() {
+        Resource resource = resourceLoader.getResource(quotasLocation);
+        try (InputStream in = resource.getInputStream()) {
+            long lastModified = resource.lastModified();
+            Properties properties = new Properties();
+            properties.load(in);
+            List<Quota> parsed = parse(properties);
+            quotas = parsed;
+            quotasLastModified = lastModified;
+            countReload("success");
+            log.info("Loaded {} rate limit quota patterns from {}", parsed.size(), quotasLocation);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            countReload("failure");
+            log.error("Invalid rate limit quotas in {}, keeping the previous ones: {}", quotasLocation, e.getMessage());
+            return false;
+        }
+    }
+
+    private List<Quota> parse(Properties properties) {
+        Set<String> names = new TreeSet<>();
+        for (String key : properties.stringPropertyNames()) {
+            int dot = key.lastIndexOf('.');
+            if (dot <= 0) {
+                throw new IllegalArgumentException("Unexpected key " + key);
+            }
+            names.add(key.substring(0, dot));
+        }
+
+        List<Quota> result = new ArrayList<>();
+        for (String name : names) {
+            String match = properties.getProperty(name + ".match");
+            if (match == null || match.isBlank()) {
+                throw new IllegalArgumentException("Quota " + name + " has no match");
+            }
+            Limit user = parseLimit(name, properties.getProperty(name + ".user"));
+            Limit ip = parseLimit(name, properties.getProperty(name + ".ip"));
+            if (user == null && ip == null) {
+                throw new IllegalArgumentException("Quota " + name + " has neither a user nor an ip limit");
+            }
+            Counter allowed = outcomeCounter(name, "allowed");
+            Counter rejectedUser = outcomeCounter(name, "rejected_user");
+            Counter rejectedIp = outcomeCounter(name, "rejected_ip");
+            for (String entry : match.split(",")) {
+                String[] parts = entry.trim().split("\\s+");
+                if (parts.length > 2 || parts[0].isEmpty()) {
+                    throw new IllegalArgumentException("Quota " + name + " has a bad match entry '" + entry.trim() + "'");
+                }
+                String method = parts.length == 2 ? parts[0].toUpperCase(Locale.ROOT) : null;
+                PathPattern pattern = PATTERN_PARSER.parse(parts[parts.length - 1]);
+                result.add(new Quota(name, method, pattern, user, ip, allowed, rejectedUser, rejectedIp));
+            }
+        }
+        result.sort(MOST_SPECIFIC_FIRST);
+        return List.copyOf(result);
+    }
+
+    /**
+     * Parses "requests/period", the period being a number followed by s, m or h (e.g. 120/1m).
+     */
+    private static Limit parseLimit(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = value.trim().split("/");
+            int requests = Integer.parseInt(parts[0].trim());
+            String period = parts[1].trim();
+            long amount = Long.parseLong(period.substring(0, period.length() - 1));
+            Duration duration = switch (period.charAt(period.length() - 1)) {
+                case 's' -> Duration.ofSeconds(amount);
+                case 'm' -> Duration.ofMinutes(amount);
+                case 'h' -> Duration.ofHours(amount);
+                default -> throw new IllegalArgumentException("unknown unit");
+            };
+            if (requests < 1 || duration.isZero() || duration.isNegative()) {
+                throw new IllegalArgumentException("limit must be positive");
+            }
+            return new Limit(requests, duration);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Quota " + name + " has a bad limit '" + value + "'", e);
+        }
+    }
+
+    private Quota match(String method, String path) {
+        List<Quota> current = quotas;
+        if (current.isEmpty()) {
+            return null;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (Quota quota : current) {
+            if (quota.matches(method, container)) {
+                return quota;
+            }
+        }
+        return null;
+    }
+
+    private Entry entry(String key, Limit limit, long now) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        Entry existing = stripe.entries.get(key);
+        if (existing != null && existing.limit().equals(limit)) {
+            return existing;
+        }
+        if (existing == null && stripe.entries.size() >= stripeCapacity) {
+            makeRoom(stripe, now);
+        }
+        // Either new, or the quota was reloaded with different limits
+        return stripe.entries.compute(key, (k, current) -> current != null && current.limit().equals(limit)
+                ? current
+                : new Entry(limit, limit.newBucket(now)));
+    }
+
+    private void makeRoom(Stripe stripe, long now) {
+        evictIdle(stripe, now);
+        if (stripe.entries.size() < stripeCapacity) {
+            return;
+        }
+        // Still full: drop arbitrary entries until we are back under 90% of the bound. Those
+        // clients get a fresh bucket, which beats growing without limit under a spoofed-key flood.
+        int target = stripeCapacity - stripeCapacity / 10;
+        Iterator<Entry> iterator = stripe.entries.values().iterator();
+        while (stripe.entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static int evictIdle(Stripe stripe, long now) {
+        int before = stripe.entries.size();
+        stripe.entries.values().removeIf(entry -> entry.bucket().isFull(now));
+        return before - stripe.entries.size();
+    }
+
+    private static Decision decision(boolean allowed, Quota quota, Entry entry, long now) {
+        TokenBucket bucket = entry.bucket();
+        return new Decision(allowed, quota.name(), entry.limit().requests(), bucket.remaining(now),
+                toSeconds(bucket.nanosUntilFull(now)), toSeconds(bucket.nanosUntilAvailable(now)),
+                entry.limit().policy());
+    }
+
+    private int trackedEntries() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.entries.size();
+        }
+        return total;
+    }
+
+    private Counter outcomeCounter(String quota, String outcome) {
+        return Counter.builder("apms.ratelimit.requests")
+                .description("API requests by rate limit quota and outcome")
+                .tags("quota", quota, "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void countReload(String outcome) {
+        Counter.builder("apms.ratelimit.reloads")
+                .description("Rate limit quota file loads by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static long toSeconds(long nanos) {
+        return TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
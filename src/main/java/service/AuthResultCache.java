@@ -0,0 +1,223 @@
+package service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of refresh-token validation results for server-rendered pages.
+ * <p>
+ * Keyed by a SHA-256 digest of the token so raw tokens are never held as map keys. Entries
+ * live for a few seconds and are dropped immediately (and again after commit) on logout,
+ * rotation and family or user revocation, so a revoked session stops rendering pages at once.
+ * Invalidations are also published on the {@link InvalidationBus} so other nodes drop theirs.
+ */
+@Service
+public class AuthResultCache implements InvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthResultCache.class);
+
+    @Value("${apms.auth-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apms.auth-cache.ttl-ms:5000}")
+    private long ttlMs;
+
+    @Value("${apms.auth-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped by every invalidation. A load that started before an invalidation is not cached,
+     * so a slow DB read can't put a just-revoked token back.
+     */
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    /**
+     * Result of validating a refresh token. {@code valid == false} results are cached too,
+     * so a garbage cookie doesn't hit the database on every page.
+     */
+    public record AuthResult(boolean valid, String username, String role, UUID userId, String tokenFamily) {
+
+        public static final AuthResult INVALID = new AuthResult(false, null, null, null, null);
+    }
+
+    private record Entry(AuthResult result, long expiresAtNanos) {
+    }
+
+    @PostConstruct
+    public void init() {
+        hitCounter = Counter.builder("apms.auth.cache")
+                .description("Page auth lookups served from the auth result cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        missCounter = Counter.builder("apms.auth.cache")
+                .description("Page auth lookups served from the auth result cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("apms.auth.cache.size", entries, Map::size)
+                .description("Cached refresh-token validation results")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached result for the token or computes it with {@code loader}.
+     */
+    public AuthResult get(String token, Supplier<AuthResult> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = digest(token);
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAtNanos - now > 0) {
+            hitCounter.increment();
+            return entry.result;
+        }
+        missCounter.increment();
+
+        long epoch = invalidationEpoch.get();
+        AuthResult result = loader.get();
+        if (invalidationEpoch.get() == epoch) {
+            if (entries.size() >= maxEntries) {
+                evict();
+            }
+            entries.put(key, new Entry(result, now + TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+        }
+        return result;
+    }
+
+    public void invalidateToken(String token) {
+        if (token == null) {
+            return;
+        }
+        String key = digest(token);
+        invalidate(() -> entries.remove(key));
+        invalidationBus.publish(new Invalidation.TokenRevoked(key));
+    }
+
+    public void invalidateFamily(String tokenFamily) {
+        invalidateMatching(familyMatcher(tokenFamily));
+        invalidationBus.publish(new Invalidation.TokenFamilyRevoked(tokenFamily));
+    }
+
+    public void invalidateUser(UUID userId) {
+        invalidateMatching(userMatcher(userId));
+        invalidationBus.publish(new Invalidation.UserChanged(userId));
+    }
+
+    /**
+     * Another node committed the change already, so there's no transaction to wait for.
+     */
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        invalidationEpoch.incrementAndGet();
+        switch (invalidation) {
+            case Invalidation.TokenRevoked token -> entries.remove(token.tokenDigest());
+            case Invalidation.TokenFamilyRevoked family -> removeMatching(familyMatcher(family.tokenFamily()));
+            case Invalidation.UserChanged user -> removeMatching(userMatcher(user.userId()));
+            case Invalidation.ProjectChanged project -> {
+                // Project writes don't affect session validity
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        invalidationEpoch.incrementAndGet();
+        entries.clear();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.expiresAtNanos - now <= 0);
+    }
+
+    private void invalidateMatching(Predicate<AuthResult> predicate) {
+        invalidate(() -> removeMatching(predicate));
+    }
+
+    private void removeMatching(Predicate<AuthResult> predicate) {
+        entries.values().removeIf(entry -> entry.result.valid() && predicate.test(entry.result));
+    }
+
+    private static Predicate<AuthResult> familyMatcher(String tokenFamily) {
+        return result -> tokenFamily.equals(result.tokenFamily());
+    }
+
+    private static Predicate<AuthResult> userMatcher(UUID userId) {
+        return result -> userId.equals(result.userId());
+    }
+
+    private void invalidate(Runnable removal) {
+        invalidationEpoch.incrementAndGet();
+        removal.run();
+        // A page render can re-read the row before the revoking transaction commits; drop it again afterwards
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidationEpoch.incrementAndGet();
+                    removal.run();
+                }
+            });
+        }
+    }
+
+    private void evict() {
+        evictExpired();
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        int toRemove = entries.size() - maxEntries + maxEntries / 10;
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        log.debug("Auth result cache full, evicted down to {} entries", entries.size());
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
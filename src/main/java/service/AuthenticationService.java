@@ -2,12 +2,15 @@ package service;
 
 import dto.AuthenticationResponse;
 import dto.SessionInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.RefreshTokensRepository;
@@ -15,6 +18,7 @@ import repository.UserRepository;
 import tables.RefreshTokens;
 import tables.Users;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,7 +36,7 @@ public class AuthenticationService {
     public JwtService jwtService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private UserDetailsService userDetailsService;
@@ -40,31 +44,72 @@ public class AuthenticationService {
     @Autowired
     private TokenRotationService tokenRotationService;
 
+    @Autowired
+    private SecurityIncidentMonitor securityIncidentMonitor;
+
+    @Autowired
+    private SecurityEventJournal securityEventJournal;
+
+    @Autowired
+    private AuthResultCache authResultCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ClusterJobRunner clusterJobRunner;
+
     private Logger log = LoggerFactory.getLogger(AuthenticationService.class);
 
     private static final int REMEMBER_ME_ACCESS_TOKEN_DAYS = 30;
     private static final int REMEMBER_ME_REFRESH_TOKEN_DAYS = 30;
 
-    @Transactional
+    /**
+     * Deliberately not transactional: the password check runs on the hashing pool and must not
+     * hold a DB connection while it does. The refresh token save runs in its own repository transaction.
+     */
     public AuthenticationResponse login(String username, String password, boolean rememberMe) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            AuthenticationResponse response = doLogin(username, password, rememberMe);
+            outcome = "success";
+            return response;
+        } catch (PasswordHashingUnavailableException e) {
+            outcome = "unavailable";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("apms.auth.login")
+                    .description("Login requests by outcome, including the password check")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private AuthenticationResponse doLogin(String username, String password, boolean rememberMe) {
         Optional<Users> userOpt = usersRepository.findByUsername(username);
 
         if (userOpt.isEmpty()) {
             log.error("Invalid Username: {}", username);
-            throw new RuntimeException("Invalid Username");
+            securityEventJournal.record(SecurityEventJournal.EventType.LOGIN_UNKNOWN_USER, null, username, null);
+            throw new BadCredentialsException("Invalid Username");
         }
 
         Users user = userOpt.get();
 
         if (!user.isAccountEnabled()) {
-            throw new RuntimeException("Account is disabled");
+            securityEventJournal.record(SecurityEventJournal.EventType.LOGIN_ACCOUNT_DISABLED, user.getId(), username, null);
+            throw new DisabledException("Account is disabled");
         }
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             log.error("Invalid credentials for user " + username);
-            throw new RuntimeException("Invalid credentials");
+            securityEventJournal.record(SecurityEventJournal.EventType.LOGIN_BAD_CREDENTIALS, user.getId(), username, null);
+            throw new BadCredentialsException("Invalid credentials");
         }
 
+        passwordHashingService.upgradeHashIfNeeded(user.getId(), password, user.getPassword());
+
         String accessToken;
         String refreshToken;
         LocalDateTime refreshTokenExpiration;
@@ -119,7 +164,6 @@ public class AuthenticationService {
         return new AuthenticationResponse(accessToken, refreshToken, user.getUsername());
     }
 
-    @Transactional
     public AuthenticationResponse login(String username, String password) {
         return login(username, password, false);
     }
@@ -208,6 +252,7 @@ public class AuthenticationService {
 
     @Transactional
     public void logout(String refreshToken) {
+        authResultCache.invalidateToken(refreshToken);
         Optional<RefreshTokens> tokenOpt = refreshTokensRepository.findByToken(refreshToken);
         if (tokenOpt.isPresent()) {
             RefreshTokens tokenEntity = tokenOpt.get();
@@ -238,6 +283,7 @@ public class AuthenticationService {
                     tokenRotationService.revokeTokenFamily(family, "User logged out all devices");
                 });
         refreshTokensRepository.deleteByUserId(userId);
+        authResultCache.invalidateUser(userId);
         log.info("Deleted all tokens for user ID: {}", userId);
     }
 
@@ -249,45 +295,47 @@ public class AuthenticationService {
     }
 
     @Scheduled(fixedRate = 120000) // Every 2 minutes
-    @Transactional
     public void autoRevokeExpiredTokens() {
-        log.info("Auto-revoking expired tokens");
-        int revokedCount = refreshTokensRepository.revokeExpiredTokens(LocalDateTime.now());
-        int deleteCount = refreshTokensRepository.deleteExpiredAndRevokedTokens(LocalDateTime.now());
-        log.info("Revoked {} expired tokens and deleted {} revoked or expired tokens",
-                revokedCount, deleteCount);
+        // One node per interval does the UPDATE/DELETE pass, see ClusterJobRunner
+        clusterJobRunner.submit("auto-revoke-expired-tokens", Duration.ofMinutes(2), () -> {
+            int revokedCount = refreshTokensRepository.revokeExpiredTokens(LocalDateTime.now());
+            int deleteCount = refreshTokensRepository.deleteExpiredAndRevokedTokens(LocalDateTime.now());
+            log.info("Revoked {} expired tokens and deleted {} revoked or expired tokens",
+                    revokedCount, deleteCount);
+            return revokedCount + deleteCount;
+        });
     }
 
 
     @Scheduled(fixedRate = 900000) // Every 15 minutes
-    @Transactional
     public void monitorSecurityIncidents() {
-        log.info("Checking for security incidents...");
+        // In-memory counters are per node, so every node reports its own
+        log.info("Security incidents since {}: {}",
+                securityIncidentMonitor.getCountingSince(), securityIncidentMonitor.snapshot());
 
-        // Check for tokens with high rotation counts
-        var suspiciousTokens = tokenRotationService.findSuspiciousTokens();
-        if (!suspiciousTokens.isEmpty()) {
-            log.warn("Found {} tokens with suspicious rotation patterns", suspiciousTokens.size());
-        }
-        // Check for recent token reuse incidents
-        var recentIncidents = tokenRotationService.getRecentSecurityIncidents(24);
-        if (!recentIncidents.isEmpty()) {
-            log.error("🚨 Found {} token reuse incidents in the last 24 hours", recentIncidents.size());
-            // Optional: Send alert to admin
-        }
+        clusterJobRunner.submit("monitor-security-incidents", Duration.ofMinutes(15), () -> {
+            log.info("Checking for security incidents...");
+
+            // Check for tokens with high rotation counts
+            long suspiciousTokens = tokenRotationService.countSuspiciousTokens();
+            if (suspiciousTokens > 0) {
+                log.warn("Found {} tokens with suspicious rotation patterns", suspiciousTokens);
+            }
+            // Check for recent token reuse incidents
+            long recentIncidents = tokenRotationService.countRecentSecurityIncidents(24);
+            if (recentIncidents > 0) {
+                log.error("🚨 Found {} token reuse incidents in the last 24 hours", recentIncidents);
+                // Optional: Send alert to admin
+            }
+            return (int) (suspiciousTokens + recentIncidents);
+        });
     }
 
+    @Transactional(readOnly = true)
     public SessionInfo getUserSessionInfo(UUID userId) {
-        var tokens = refreshTokensRepository.findByUserId(userId);
-
-        long activeTokens = tokens.stream()
-                .filter(t -> !t.isRevoked() && !t.isExpired())
-                .count();
-
-        long totalRotations = tokens.stream()
-                .mapToLong(RefreshTokens::getRotationCount)
-                .sum();
+        long activeTokens = refreshTokensRepository.countActiveTokensForUser(userId, LocalDateTime.now());
+        long totalRotations = tokenRotationService.getUserRotationCount(userId);
 
         return new SessionInfo(activeTokens, totalRotations);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,144 @@
+package service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal circuit breaker for calls to an external dependency.
+ * <p>
+ * CLOSED lets everything through and opens after {@code failureThreshold} consecutive failures.
+ * OPEN refuses calls outright until {@code openNanos} have passed, then becomes HALF_OPEN, where
+ * exactly one probe call is let through: its success closes the breaker, its failure opens it for
+ * another period. Callers pair every {@link Permit} from {@link #tryAcquire} with exactly one of
+ * {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}.
+ * <p>
+ * Every state change starts a new generation, and outcomes are only counted for permits of the
+ * current one: a slow call admitted before the breaker tripped can't close it again, and calls
+ * finishing while a probe runs can't decide the probe's result.
+ */
+public final class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Admission to make one call, tied to the generation it was granted in.
+     */
+    public record Permit(long generation, boolean probe) {
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    // Guarded by this; calls through the breaker are few (GitHub is behind a small bulkhead)
+    private volatile State state = State.CLOSED;
+    private long generation;
+    private int consecutiveFailures;
+    private boolean probeInFlight;
+    private long openedAtNanos;
+
+    public CircuitBreaker(String name, int failureThreshold, long openNanos) {
+        this(name, failureThreshold, openNanos, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, long openNanos, LongSupplier nanoClock) {
+        if (failureThreshold < 1 || openNanos < 1) {
+            throw new IllegalArgumentException("Circuit breaker needs a failure threshold >= 1 and a positive open period");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return a permit if a call may go ahead now, otherwise null
+     */
+    public synchronized Permit tryAcquire() {
+        switch (state) {
+            case CLOSED -> {
+                return new Permit(generation, false);
+            }
+            case OPEN -> {
+                if (nanoClock.getAsLong() - openedAtNanos < openNanos) {
+                    return null;
+                }
+                transition(State.HALF_OPEN);
+                log.info("Circuit {} half-open, probing", name);
+            }
+            case HALF_OPEN -> {
+                if (probeInFlight) {
+                    return null;
+                }
+            }
+        }
+        probeInFlight = true;
+        return new Permit(generation, true);
+    }
+
+    public synchronized void onSuccess(Permit permit) {
+        if (permit.generation() != generation) {
+            return;
+        }
+        if (state == State.CLOSED) {
+            consecutiveFailures = 0;
+        } else if (permit.probe()) {
+            transition(State.CLOSED);
+            log.info("Circuit {} closed", name);
+        }
+    }
+
+    public synchronized void onFailure(Permit permit) {
+        if (permit.generation() != generation) {
+            return;
+        }
+        if (state == State.CLOSED) {
+            if (++consecutiveFailures >= failureThreshold) {
+                trip(failureThreshold + " consecutive failures");
+            }
+        } else if (permit.probe()) {
+            trip("probe failed");
+        }
+    }
+
+    /**
+     * The call never reached the dependency (e.g. it was rejected locally).
+     */
+    public synchronized void onIgnored(Permit permit) {
+        if (permit.generation() == generation && permit.probe()) {
+            probeInFlight = false;
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Nanoseconds until an open breaker lets a probe through (0 unless OPEN).
+     */
+    public synchronized long nanosUntilProbe() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0L, openNanos - (nanoClock.getAsLong() - openedAtNanos));
+    }
+
+    private void trip(String reason) {
+        openedAtNanos = nanoClock.getAsLong();
+        transition(State.OPEN);
+        log.warn("Circuit {} opened: {}", name, reason);
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+}
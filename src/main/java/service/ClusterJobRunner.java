@@ -0,0 +1,244 @@
+package service;
+
+import dto.ScheduledJobStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import repository.ScheduledJobsRepository;
+import tables.ScheduledJobs;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs cluster-wide maintenance jobs once per interval across all nodes instead of once per node.
+ * <p>
+ * Every node still triggers the job from its own @Scheduled method, but {@link #submit} only
+ * queues it: after a random jitter it runs on this runner's threads inside one transaction that
+ * first takes a Postgres advisory transaction lock for the job. A node that can't get the lock,
+ * or finds in scheduled_jobs that another node finished the job within the last
+ * apms.jobs.lease-fraction of its interval (by the database clock), skips its turn. A run still
+ * in progress on this node is never started again (overlap protection). Outcomes, durations and
+ * affected rows are exported as apms.jobs.* and listed by {@link #statuses} for the admin view.
+ */
+@Service
+public class ClusterJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterJobRunner.class);
+
+    // First key of the two-int advisory lock form, so our locks can't collide with anyone else's
+    private static final int LOCK_NAMESPACE = 0x41504D53; // "APMS"
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    enum Outcome { COMPLETED, FAILED, LOCKED, RECENT, OVERLAP }
+
+    @Value("${apms.jobs.jitter-ms:5000}")
+    private long jitterMs;
+
+    @Value("${apms.jobs.lease-fraction:0.8}")
+    private double leaseFraction;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ScheduledJobsRepository scheduledJobsRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String node = nodeName();
+    private final Map<String, JobState> jobs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "cluster-job-" + THREAD_NUMBER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Per-node bookkeeping; the cluster-wide part lives in scheduled_jobs.
+     */
+    private static final class JobState {
+        final Duration interval;
+        final AtomicBoolean running = new AtomicBoolean();
+        final AtomicLong localRuns = new AtomicLong();
+        final AtomicLong localSkips = new AtomicLong();
+        volatile Outcome lastOutcome;
+        volatile LocalDateTime lastAttemptAt;
+        volatile String lastError;
+
+        JobState(Duration interval) {
+            this.interval = interval;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues {@code job} to run after a random jitter unless it's already running here.
+     * The job runs inside a transaction and returns the number of rows it affected.
+     */
+    public void submit(String name, Duration interval, IntSupplier job) {
+        JobState state = jobs.computeIfAbsent(name, key -> new JobState(interval));
+        if (!state.running.compareAndSet(false, true)) {
+            record(name, state, Outcome.OVERLAP, 0, 0);
+            log.warn("Job {} is still running on this node, skipping this trigger", name);
+            return;
+        }
+        long delay = jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0;
+        executor.schedule(() -> {
+            try {
+                execute(name, state, job);
+            } finally {
+                state.running.set(false);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    public List<ScheduledJobStatus> statuses() {
+        Map<String, ScheduledJobs> cluster = new HashMap<>();
+        scheduledJobsRepository.findAll().forEach(row -> cluster.put(row.getName(), row));
+
+        List<ScheduledJobStatus> result = new ArrayList<>(jobs.size());
+        jobs.forEach((name, state) -> {
+            ScheduledJobs row = cluster.get(name);
+            result.add(new ScheduledJobStatus(name, state.interval.toSeconds(),
+                    row != null ? row.getLastStartedAt() : null,
+                    row != null ? row.getLastFinishedAt() : null,
+                    row != null ? row.getLastDurationMs() : null,
+                    row != null ? row.getLastRowsAffected() : null,
+                    row != null ? row.getLastNode() : null,
+                    row != null ? row.getRunCount() : 0,
+                    state.running.get(),
+                    state.lastOutcome != null ? state.lastOutcome.name() : null,
+                    state.lastAttemptAt,
+                    state.lastError,
+                    state.localRuns.get(),
+                    state.localSkips.get()));
+        });
+        result.sort(Comparator.comparing(ScheduledJobStatus::getName));
+        return result;
+    }
+
+    private void execute(String name, JobState state, IntSupplier job) {
+        state.lastAttemptAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        try {
+            JobResult result = transactionTemplate.execute(status -> runLocked(name, state, job));
+            long durationNanos = System.nanoTime() - start;
+            record(name, state, result.outcome(), result.rows(), durationNanos);
+            if (result.outcome() == Outcome.COMPLETED) {
+                state.lastError = null;
+                log.info("Job {} affected {} rows in {} ms", name, result.rows(),
+                        TimeUnit.NANOSECONDS.toMillis(durationNanos));
+            } else {
+                log.debug("Job {} skipped on this node: {}", name, result.outcome());
+            }
+        } catch (RuntimeException e) {
+            state.lastError = e.getMessage();
+            record(name, state, Outcome.FAILED, 0, System.nanoTime() - start);
+            log.error("Job {} failed: {}", name, e.getMessage(), e);
+        }
+    }
+
+    private record JobResult(Outcome outcome, int rows) {
+    }
+
+    private JobResult runLocked(String name, JobState state, IntSupplier job) {
+        // Released at commit or rollback, so a crashed node never holds it
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?, hashtext(?))",
+                Boolean.class, LOCK_NAMESPACE, name);
+        if (!Boolean.TRUE.equals(locked)) {
+            return new JobResult(Outcome.LOCKED, 0);
+        }
+
+        // Lease times come from the database clock, so skew between nodes can't run a job twice or starve it
+        ScheduledJobs row = scheduledJobsRepository.findById(name).orElseGet(() -> new ScheduledJobs(name));
+        LocalDateTime now = jdbcTemplate.queryForObject("SELECT localtimestamp", LocalDateTime.class);
+        Duration lease = Duration.ofMillis((long) (state.interval.toMillis() * leaseFraction));
+        if (row.getLastFinishedAt() != null && row.getLastFinishedAt().isAfter(now.minus(lease))) {
+            return new JobResult(Outcome.RECENT, 0);
+        }
+
+        long start = System.nanoTime();
+        int rows = job.getAsInt();
+        row.setLastStartedAt(now);
+        // now() is frozen at transaction start; the finish time needs the current database time
+        row.setLastFinishedAt(jdbcTemplate.queryForObject("SELECT clock_timestamp()::timestamp", LocalDateTime.class));
+        row.setLastDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        row.setLastRowsAffected((long) rows);
+        row.setLastNode(node);
+        row.setRunCount(row.getRunCount() + 1);
+        scheduledJobsRepository.save(row);
+        return new JobResult(Outcome.COMPLETED, rows);
+    }
+
+    private void record(String name, JobState state, Outcome outcome, int rows, long durationNanos) {
+        state.lastOutcome = outcome;
+        if (outcome == Outcome.COMPLETED || outcome == Outcome.FAILED) {
+            state.localRuns.incrementAndGet();
+        } else {
+            state.localSkips.incrementAndGet();
+        }
+
+        String outcomeTag = outcome.name().toLowerCase();
+        Counter.builder("apms.jobs.runs")
+                .description("Scheduled job triggers on this node by outcome")
+                .tags("job", name, "outcome", outcomeTag)
+                .register(meterRegistry)
+                .increment();
+        if (outcome == Outcome.COMPLETED || outcome == Outcome.FAILED) {
+            Timer.builder("apms.jobs.duration")
+                    .description("Time spent running scheduled jobs, lock and lease check included")
+                    .tags("job", name, "outcome", outcomeTag)
+                    .register(meterRegistry)
+                    .record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+        if (outcome == Outcome.COMPLETED) {
+            DistributionSummary.builder("apms.jobs.rows")
+                    .description("Rows affected per scheduled job run")
+                    .tag("job", name)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+    }
+
+    private static String nodeName() {
+        try {
+            return InetAddress.getLocalHost().getHostName() + "/" + ProcessHandle.current().pid();
+        } catch (UnknownHostException e) {
+            return "unknown/" + ProcessHandle.current().pid();
+        }
+    }
+}
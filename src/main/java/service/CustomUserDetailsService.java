@@ -25,7 +25,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        log.info("Loading user details for username: {}", username);
+        log.debug("Loading user details for username: {}", username);
 
         Users user = userRepository.findByUsername(username)
                 .orElseThrow(() -> {
@@ -33,13 +33,13 @@ public class CustomUserDetailsService implements UserDetailsService {
                     return new UsernameNotFoundException("User not found with username: " + username);
                 });
 
-        log.info("User found: {}, Role: {}, isAdmin: {}", user.getUsername(), user.getRole(), user.isAdmin());
+        log.debug("User found: {}, Role: {}, isAdmin: {}", user.getUsername(), user.getRole(), user.isAdmin());
 
         // Create authorities with ROLE_ prefix (Spring Security requirement)
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
 
-        log.info("Granted authorities for user {}: {}", username, authorities);
+        log.debug("Granted authorities for user {}: {}", username, authorities);
 
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
@@ -0,0 +1,141 @@
+package service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Always-on Flight Recorder recording with the APMS custom events ({@link JfrEvents}).
+ * <p>
+ * Uses the JDK "default" settings (designed for production, ~1% overhead) and keeps a rolling
+ * window bounded by apms.jfr.max-age-minutes and apms.jfr.max-size-mb in the JFR repository.
+ * {@link #dump(int)} writes the last N minutes of that window to apms.jfr.dump-directory.
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final String RECORDING_NAME = "apms-continuous";
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final List<Class<? extends Event>> APMS_EVENTS = List.of(
+            JfrEvents.TokenRotated.class,
+            JfrEvents.ReuseDetected.class,
+            JfrEvents.GitHubSyncCompleted.class,
+            JfrEvents.ProjectListServed.class,
+            JfrEvents.PasswordHashed.class
+    );
+
+    @Value("${apms.jfr.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apms.jfr.settings:default}")
+    private String settings;
+
+    @Value("${apms.jfr.max-age-minutes:60}")
+    private long maxAgeMinutes;
+
+    @Value("${apms.jfr.max-size-mb:250}")
+    private long maxSizeMb;
+
+    @Value("${apms.jfr.dump-directory:data/jfr}")
+    private String dumpDirectory;
+
+    private volatile Recording recording;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Continuous JFR recording disabled");
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("Flight Recorder is not available in this JVM, continuous recording not started");
+            return;
+        }
+
+        APMS_EVENTS.forEach(FlightRecorder::register);
+        try {
+            Recording continuous = new Recording(Configuration.getConfiguration(settings));
+            continuous.setName(RECORDING_NAME);
+            continuous.setToDisk(true);
+            continuous.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+            continuous.setMaxSize(maxSizeMb * 1024 * 1024);
+            // Custom events are enabled explicitly: the JDK settings files don't know about them
+            APMS_EVENTS.forEach(event -> continuous.enable(event).withoutStackTrace());
+            continuous.start();
+            recording = continuous;
+            log.info("Continuous JFR recording started with '{}' settings, keeping {} minutes / {} MB",
+                    settings, maxAgeMinutes, maxSizeMb);
+        } catch (IOException | ParseException e) {
+            log.warn("Could not load JFR settings '{}', continuous recording not started: {}", settings, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Recording current = recording;
+        recording = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    public boolean isRecording() {
+        Recording current = recording;
+        return current != null && current.getState() == RecordingState.RUNNING;
+    }
+
+    /**
+     * Writes the events of the last {@code minutes} minutes to a new file in the dump directory.
+     *
+     * @return the written file
+     * @throws IllegalStateException if no recording is running
+     */
+    public Path dump(int minutes) throws IOException {
+        Recording current = recording;
+        if (current == null || current.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("Continuous JFR recording is not running");
+        }
+
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(minutes));
+        Path directory = Paths.get(dumpDirectory).toAbsolutePath();
+        Files.createDirectories(directory);
+        Path target = directory.resolve("apms-" + FILE_TIMESTAMP.format(Instant.now()) + "-" + minutes + "m.jfr");
+        Path full = Files.createTempFile(directory, "apms-full-", ".jfr");
+
+        try {
+            // Recording.dump writes the whole window; trim to the requested range afterwards
+            current.dump(full);
+            try (RecordingFile recordingFile = new RecordingFile(full)) {
+                recordingFile.write(target, event -> !event.getEndTime().isBefore(cutoff));
+            }
+        } finally {
+            Files.deleteIfExists(full);
+        }
+
+        log.info("Dumped last {} minutes of JFR recording to {} ({} bytes)", minutes, target, Files.size(target));
+        return target;
+    }
+}
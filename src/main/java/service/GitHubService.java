@@ -1,131 +1,432 @@
 package service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRateLimit;
 import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHUser;
 import org.kohsuke.github.GitHub;
 import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.PagedIterator;
+import org.kohsuke.github.extras.HttpClientGitHubConnector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import repository.ProjectRepository;
 import tables.Projects;
 import tables.Users;
 
 import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports a user's GitHub repositories as personal projects.
+ * <p>
+ * Every GitHub request goes through {@link #callGitHub}: it runs on a small dedicated pool with a
+ * bounded queue (the bulkhead) under a deadline (github.api.timeout-ms, per request, so per page
+ * of a repository listing), behind a {@link CircuitBreaker}. The client itself has a connect
+ * timeout. When GitHub is slow or down, a few callers time out, the circuit opens, and from then
+ * on syncs return immediately and project lists are served from the database alone; a single
+ * probe call per apms.github.circuit.open-seconds checks for recovery. Nothing here waits for
+ * GitHub while holding a database connection: open-in-view is off, so the caller's user lookup
+ * has returned its connection, and the import transaction starts after the listing.
+ */
 @Service
 public class GitHubService {
 
     private static final Logger log = LoggerFactory.getLogger(GitHubService.class);
 
+    // GitHub's maximum; fewer round trips per sync, each under its own deadline
+    private static final int REPOSITORY_PAGE_SIZE = 100;
+
     @Autowired
     private ProjectRepository projectRepository;
 
     @Value("${github.api.token:}")
     private String githubToken;
 
-    @Transactional
-    public void autoSyncGitHubProjects(Users user) {
-        try {
-            log.info("Auto-syncing GitHub projects for user: {}", user.getUsername());
+    @Value("${github.api.url:https://api.github.com}")
+    private String githubApiUrl;
 
-            // Connect to GitHub API using token
-            GitHub github = connectToGitHub();
+    @Value("${github.api.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
 
-            // Check if we're authenticated
-            if (!github.isAnonymous()) {
-                log.info("Successfully authenticated with GitHub API");
-            } else {
-                log.warn("Using anonymous GitHub API access (rate limits apply)");
-            }
-            if (user.getUsernameGHUB() == null || user.getUsernameGHUB().isEmpty()) {
-                log.error("GitHub username {} not found for user: {}", user.getUsernameGHUB(), user.getUsername());
-                return;
-            }
+    @Value("${github.api.timeout-ms:3000}")
+    private long callTimeoutMs;
 
-            // Try to get user's repositories
-            List<GHRepository> repositories = getUserRepositories(github, user.getUsernameGHUB());
+    @Value("${apms.github.bulkhead.max-concurrent:4}")
+    private int maxConcurrent;
 
-            if (repositories.isEmpty()) {
-                log.info("No GitHub repositories found for user: {}", user.getUsernameGHUB());
-                return;
-            }
+    @Value("${apms.github.bulkhead.queue-capacity:8}")
+    private int queueCapacity;
 
-            int importedCount = 0;
-            int skippedCount = 0;
-
-            // Import each repository
-            for (GHRepository repo : repositories) {
-                try {
-                    // Skip if already imported
-                    if (projectRepository.existsByGithubUrl(repo.getHtmlUrl().toString())) {
-                        log.debug("Repository already imported: {}", repo.getName());
-                        skippedCount++;
-                        continue;
-                    }
+    @Value("${apms.github.circuit.failure-threshold:5}")
+    private int failureThreshold;
 
-                    // Create new project from GitHub repo
-                    Projects project = createProjectFromRepo(repo, user);
-                    projectRepository.save(project);
+    @Value("${apms.github.circuit.open-seconds:30}")
+    private long openSeconds;
 
-                    importedCount++;
-                    log.debug("Imported repository: {}", repo.getName());
+    @Autowired
+    private MeterRegistry meterRegistry;
 
-                } catch (Exception e) {
-                    log.error("Error importing repository {}: {}", repo.getName(), e.getMessage());
-                }
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserDataVersions userDataVersions;
+
+    private Counter importedReposCounter;
+    private Counter skippedReposCounter;
+    private Counter failedReposCounter;
+    private final Map<String, Counter> callCounters = new HashMap<>();
+
+    private ThreadPoolExecutor executor;
+    private CircuitBreaker circuitBreaker;
+    private volatile GitHub github;
+
+    // -1 until the first GitHub response tells us
+    private final AtomicLong rateLimitRemaining = new AtomicLong(-1);
+    private final AtomicLong rateLimitLimit = new AtomicLong(-1);
+
+    @FunctionalInterface
+    private interface GitHubCall<T> {
+        T call(GitHub github) throws IOException;
+    }
+
+    @PostConstruct
+    public void initMetrics() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                maxConcurrent,
+                maxConcurrent,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "github-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        circuitBreaker = new CircuitBreaker("github", failureThreshold, TimeUnit.SECONDS.toNanos(openSeconds));
+
+        importedReposCounter = repoCounter("imported");
+        skippedReposCounter = repoCounter("skipped");
+        failedReposCounter = repoCounter("failed");
+        for (String outcome : List.of("success", "failure", "timeout", "rejected", "short_circuited")) {
+            callCounters.put(outcome, Counter.builder("apms.github.calls")
+                    .description("GitHub API calls by outcome; rejected = bulkhead full, short_circuited = circuit open")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("apms.github.rate_limit.remaining", rateLimitRemaining, AtomicLong::get)
+                .description("GitHub API requests left in the current window, as last reported by GitHub")
+                .register(meterRegistry);
+        Gauge.builder("apms.github.rate_limit.limit", rateLimitLimit, AtomicLong::get)
+                .description("GitHub API request quota per window")
+                .register(meterRegistry);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("apms.github.circuit.state", circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                    .description("1 for the GitHub circuit breaker's current state")
+                    .tag("state", state.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("apms.github.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("GitHub calls currently running")
+                .register(meterRegistry);
+        Gauge.builder("apms.github.bulkhead.queued", executor, e -> e.getQueue().size())
+                .description("GitHub calls waiting for a GitHub thread")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void autoSyncGitHubProjects(Users user) {
+        // Timer apms.github.sync{outcome} plus a span parenting the GitHub calls and the import queries
+        Observation observation = Observation.createNotStarted("apms.github.sync", observationRegistry)
+                .highCardinalityKeyValue("enduser.id", String.valueOf(user.getId()))
+                .start();
+        JfrEvents.GitHubSyncCompleted syncEvent = new JfrEvents.GitHubSyncCompleted();
+        syncEvent.begin();
+        String outcome = "error";
+        try (Observation.Scope scope = observation.openScope()) {
+            outcome = syncGitHubProjects(user, syncEvent);
+            observation.lowCardinalityKeyValue("outcome", outcome);
+        } finally {
+            observation.stop();
+            syncEvent.end();
+            if (syncEvent.shouldCommit()) {
+                syncEvent.userId = String.valueOf(user.getId());
+                syncEvent.outcome = outcome;
+                syncEvent.commit();
             }
+        }
+    }
 
-            log.info("GitHub sync completed for user {}: {} imported, {} skipped",
-                    user.getUsername(), importedCount, skippedCount);
+    /**
+     * @param syncEvent receives the repository counts
+     * @return outcome tag for the sync timer
+     */
+    private String syncGitHubProjects(Users user, JfrEvents.GitHubSyncCompleted syncEvent) {
+        if (user.getUsernameGHUB() == null || user.getUsernameGHUB().isEmpty()) {
+            log.error("GitHub username {} not found for user: {}", user.getUsernameGHUB(), user.getUsername());
+            return "no_github_user";
+        }
+        log.info("Auto-syncing GitHub projects for user: {}", user.getUsername());
 
+        List<GHRepository> repositories;
+        try {
+            repositories = getUserRepositories(user.getUsernameGHUB());
+        } catch (GHFileNotFoundException e) {
+            log.warn("GitHub user not found: {}", user.getUsernameGHUB());
+            repositories = List.of();
+        } catch (GitHubUnavailableException e) {
+            // Expected while the circuit is open; the breaker logs its own transitions
+            log.debug("Skipping GitHub sync for user {}: {}", user.getUsername(), e.getMessage());
+            return "unavailable";
         } catch (IOException e) {
             log.error("Error connecting to GitHub API for user {}: {}", user.getUsernameGHUB(), e.getMessage());
+            return "error";
         } catch (Exception e) {
             log.error("Unexpected error during GitHub sync for user {}", user.getUsernameGHUB(), e);
+            return "error";
+        } finally {
+            GitHub client = github;
+            if (client != null) {
+                // Quota from the response headers of the calls just made; no extra request
+                updateRateLimit(client.lastRateLimit());
+            }
+        }
+        syncEvent.repositories = repositories.size();
+
+        if (repositories.isEmpty()) {
+            log.info("No GitHub repositories found for user: {}", user.getUsernameGHUB());
+            return "empty";
+        }
+
+        List<GHRepository> toImport = repositories;
+        try {
+            int[] counts = transactionTemplate.execute(status -> importRepositories(toImport, user));
+            importedReposCounter.increment(counts[0]);
+            skippedReposCounter.increment(counts[1]);
+            syncEvent.imported = counts[0];
+            syncEvent.skipped = counts[1];
+            log.info("GitHub sync completed for user {}: {} imported, {} skipped",
+                    user.getUsername(), counts[0], counts[1]);
+            return "success";
+        } catch (Exception e) {
+            log.error("Unexpected error during GitHub sync for user {}", user.getUsernameGHUB(), e);
+            return "error";
+        }
+    }
+
+    /**
+     * @return imported and skipped counts
+     */
+    private int[] importRepositories(List<GHRepository> repositories, Users user) {
+        int importedCount = 0;
+        int skippedCount = 0;
+
+        // Import each repository
+        for (GHRepository repo : repositories) {
+            try {
+                // Skip if already imported
+                if (projectRepository.existsByGithubUrl(repo.getHtmlUrl().toString())) {
+                    log.debug("Repository already imported: {}", repo.getName());
+                    skippedCount++;
+                    continue;
+                }
+
+                // Create new project from GitHub repo
+                Projects project = createProjectFromRepo(repo, user);
+                Projects saved = projectRepository.save(project);
+                userDataVersions.projectChanged(saved.getId(), user.getId());
+
+                importedCount++;
+                log.debug("Imported repository: {}", repo.getName());
+
+            } catch (Exception e) {
+                failedReposCounter.increment();
+                log.error("Error importing repository {}: {}", repo.getName(), e.getMessage());
+            }
+        }
+        return new int[]{importedCount, skippedCount};
+    }
+
+    private void updateRateLimit(GHRateLimit rateLimit) {
+        if (rateLimit != null) {
+            rateLimitRemaining.set(rateLimit.getRemaining());
+            rateLimitLimit.set(rateLimit.getLimit());
+        }
+    }
+
+    private Counter repoCounter(String result) {
+        return Counter.builder("apms.github.sync.repositories")
+                .description("GitHub repositories seen during syncs")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call} on the GitHub bulkhead under the circuit breaker and the call deadline.
+     * A 404 counts as a healthy answer; timeouts and other errors count against the circuit.
+     *
+     * @throws GitHubUnavailableException if the circuit is open, the bulkhead is full or the deadline passed
+     */
+    private <T> T callGitHub(String operation, GitHubCall<T> call) throws IOException {
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            callCounters.get("short_circuited").increment();
+            throw new GitHubUnavailableException("GitHub circuit is open");
+        }
+        Observation parent = observationRegistry.getCurrentObservation();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                Observation observation = Observation.createNotStarted("apms.github.call", observationRegistry)
+                        .lowCardinalityKeyValue("operation", operation)
+                        .parentObservation(parent)
+                        .start();
+                try (Observation.Scope scope = observation.openScope()) {
+                    return call.call(connectToGitHub());
+                } catch (IOException | RuntimeException e) {
+                    observation.error(e);
+                    throw e;
+                } finally {
+                    observation.stop();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.onIgnored(permit);
+            callCounters.get("rejected").increment();
+            throw new GitHubUnavailableException("GitHub bulkhead is full", e);
+        }
+
+        try {
+            T result = future.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess(permit);
+            callCounters.get("success").increment();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure(permit);
+            callCounters.get("timeout").increment();
+            throw new GitHubUnavailableException("GitHub " + operation + " timed out after " + callTimeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            circuitBreaker.onIgnored(permit);
+            Thread.currentThread().interrupt();
+            throw new GitHubUnavailableException("Interrupted while waiting for GitHub", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof GHFileNotFoundException notFound) {
+                circuitBreaker.onSuccess(permit);
+                callCounters.get("success").increment();
+                throw notFound;
+            }
+            circuitBreaker.onFailure(permit);
+            callCounters.get("failure").increment();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("GitHub " + operation + " failed", cause);
         }
     }
 
+    /**
+     * One shared client; its connector has a connect timeout, and {@link #callGitHub} bounds the whole call.
+     */
     private GitHub connectToGitHub() throws IOException {
-        if (githubToken != null && !githubToken.isEmpty()) {
-            log.debug("Connecting to GitHub with authentication token");
-            return new GitHubBuilder().withOAuthToken(githubToken).build();
-        } else {
-            log.warn("No valid GitHub token configured, using anonymous access (limited to 60 requests/hour)");
-            return GitHub.connectAnonymously();
+        GitHub client = github;
+        if (client != null) {
+            return client;
+        }
+        synchronized (this) {
+            if (github == null) {
+                HttpClient httpClient = HttpClient.newBuilder()
+                        .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                        .build();
+                // The endpoint is configurable so load tests can point at a local stub
+                GitHubBuilder builder = new GitHubBuilder()
+                        .withEndpoint(githubApiUrl)
+                        .withConnector(new HttpClientGitHubConnector(httpClient));
+                if (githubToken != null && !githubToken.isEmpty()) {
+                    log.info("Connecting to GitHub with authentication token");
+                    github = builder.withOAuthToken(githubToken).build();
+                } else {
+                    log.warn("No valid GitHub token configured, using anonymous access (limited to 60 requests/hour)");
+                    github = builder.build();
+                }
+            }
+            return github;
         }
     }
 
-    private List<GHRepository> getUserRepositories(GitHub github, String username) throws IOException {
+    /**
+     * Lists the user's own (non-fork) repositories one page per {@link #callGitHub}, so the call
+     * deadline bounds each page request rather than the whole listing, however many repositories
+     * the user has.
+     */
+    private List<GHRepository> getUserRepositories(String username) throws IOException {
         List<GHRepository> repositories = new ArrayList<>();
 
-        try {
-            var user = github.getUser(username);
-            if (user != null) {
-                log.info("Found GitHub user: {}", username);
-
-                // Get all public repositories owned by the user
-                var repos = user.listRepositories();
-                for (GHRepository repo : repos) {
-                    // Only include repositories owned by the user (not forks unless they want them)
+        GHUser user = callGitHub("get-user", client -> client.getUser(username));
+        if (user != null) {
+            log.info("Found GitHub user: {}", username);
+
+            // hasNext() fetches the next page; nextPage() then drains it without another request
+            PagedIterator<GHRepository> pages = user.listRepositories(REPOSITORY_PAGE_SIZE).iterator();
+            List<GHRepository> page;
+            while ((page = callGitHub("list-repositories", client -> pages.hasNext() ? pages.nextPage() : null)) != null) {
+                for (GHRepository repo : page) {
                     if (!repo.isFork()) {
                         repositories.add(repo);
                         log.debug("Found repository: {}", repo.getName());
                     }
                 }
-
-                log.info("Found {} repositories for user {}", repositories.size(), username);
             }
-        } catch (IOException e) {
-            log.warn("GitHub user not found or error fetching repos: {} - {}", username, e.getMessage());
-        }
 
+            log.info("Found {} repositories for user {}", repositories.size(), username);
+        }
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation != null) {
+            observation.highCardinalityKeyValue("repositories", String.valueOf(repositories.size()));
+        }
         return repositories;
     }
 
@@ -177,22 +478,34 @@ public class GitHubService {
         return project;
     }
 
-    @Transactional
     public int manualSyncGitHubProjects(Users user) {
         autoSyncGitHubProjects(user);
         return projectRepository.findByCreatedByAndIsGithubImportTrue(user).size();
     }
 
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
     public String getRateLimitInfo() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        if (state == CircuitBreaker.State.OPEN) {
+            // Don't spend a call (or the probe) on this; report what GitHub last told us
+            return String.format("GitHub unavailable (circuit OPEN, next probe in %ds) - last known remaining: %d/%d",
+                    TimeUnit.NANOSECONDS.toSeconds(circuitBreaker.nanosUntilProbe()),
+                    rateLimitRemaining.get(),
+                    rateLimitLimit.get());
+        }
         try {
-            GitHub github = connectToGitHub();
-            var rateLimit = github.getRateLimit();
-            return String.format("Rate Limit - Remaining: %d/%d, Resets at: %s",
+            GHRateLimit rateLimit = callGitHub("rate-limit", GitHub::getRateLimit);
+            updateRateLimit(rateLimit);
+            return String.format("Rate Limit - Remaining: %d/%d, Resets at: %s, Circuit: %s",
                     rateLimit.getRemaining(),
                     rateLimit.getLimit(),
-                    rateLimit.getResetDate());
+                    rateLimit.getResetDate(),
+                    circuitBreaker.getState());
         } catch (IOException e) {
-            return "Unable to fetch rate limit info: " + e.getMessage();
+            return "Unable to fetch rate limit info: " + e.getMessage() + " (circuit " + circuitBreaker.getState() + ")";
         }
     }
 }
@@ -0,0 +1,18 @@
+package service;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of calling GitHub when its circuit is open, the GitHub bulkhead is full or a call
+ * ran past its deadline. An {@link IOException} so existing GitHub error handling covers it.
+ */
+public class GitHubUnavailableException extends IOException {
+
+    public GitHubUnavailableException(String message) {
+        super(message);
+    }
+
+    public GitHubUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,75 @@
+package service;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Typed cache invalidation messages carried between nodes by {@link InvalidationBus}.
+ * <p>
+ * The wire form is a short text payload ("U:&lt;userId&gt;" etc.) so it fits NOTIFY's 8000-byte limit
+ * and stays readable in psql. Tokens travel as their digest, never raw.
+ */
+public sealed interface Invalidation {
+
+    String encode();
+
+    /**
+     * Anything cached about the user changed: role, credentials, sessions or the user itself.
+     */
+    record UserChanged(UUID userId) implements Invalidation {
+        @Override
+        public String encode() {
+            return "U:" + userId;
+        }
+    }
+
+    record TokenFamilyRevoked(String tokenFamily) implements Invalidation {
+        @Override
+        public String encode() {
+            return "F:" + tokenFamily;
+        }
+    }
+
+    record TokenRevoked(String tokenDigest) implements Invalidation {
+        @Override
+        public String encode() {
+            return "T:" + tokenDigest;
+        }
+    }
+
+    /**
+     * A project was written; {@code affectedUsers} are the users whose project lists include it.
+     */
+    record ProjectChanged(UUID projectId, Set<UUID> affectedUsers) implements Invalidation {
+        @Override
+        public String encode() {
+            return "P:" + projectId + ":" + affectedUsers.stream().map(UUID::toString).collect(Collectors.joining(","));
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the payload isn't a known message
+     */
+    static Invalidation decode(String payload) {
+        if (payload.length() < 3 || payload.charAt(1) != ':') {
+            throw new IllegalArgumentException("Malformed invalidation: " + payload);
+        }
+        String body = payload.substring(2);
+        return switch (payload.charAt(0)) {
+            case 'U' -> new UserChanged(UUID.fromString(body));
+            case 'F' -> new TokenFamilyRevoked(body);
+            case 'T' -> new TokenRevoked(body);
+            case 'P' -> {
+                int separator = body.indexOf(':');
+                String users = separator < 0 ? "" : body.substring(separator + 1);
+                yield new ProjectChanged(UUID.fromString(separator < 0 ? body : body.substring(0, separator)),
+                        users.isEmpty() ? Set.of() : Arrays.stream(users.split(","))
+                                .map(UUID::fromString)
+                                .collect(Collectors.toUnmodifiableSet()));
+            }
+            default -> throw new IllegalArgumentException("Unknown invalidation type: " + payload);
+        };
+    }
+}
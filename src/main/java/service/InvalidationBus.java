@@ -0,0 +1,276 @@
+package service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node cache invalidation over Postgres LISTEN/NOTIFY, so in-process caches stay correct
+ * when several APMS nodes share a database.
+ * <p>
+ * {@link #publish} issues pg_notify on the caller's transaction, so other nodes hear about a
+ * write exactly when it commits, and never for a rollback. Each node holds one dedicated
+ * connection (outside the pool) that LISTENs on the channel; notifications arriving within
+ * apms.invalidation.coalesce-ms are de-duplicated and handed to every {@link InvalidationListener}
+ * in one pass. A node's own messages are skipped, since the publisher already invalidated
+ * locally. Anything missed while disconnected, or a burst too large to apply one by one, turns
+ * into a full resync of every listener.
+ */
+@Service
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    static final String CHANNEL = "apms_invalidation";
+    // NOTIFY payloads must stay under 8000 bytes
+    private static final int MAX_PAYLOAD_LENGTH = 7900;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    @Value("${apms.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apms.invalidation.coalesce-ms:50}")
+    private long coalesceMs;
+
+    @Value("${apms.invalidation.max-batch:1000}")
+    private int maxBatch;
+
+    @Value("${apms.invalidation.keepalive-ms:30000}")
+    private long keepaliveMs;
+
+    @Value("${spring.datasource.url:}")
+    private String url;
+
+    @Value("${spring.datasource.username:}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectProvider<InvalidationListener> listeners;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread listenerThread;
+    private Counter publishedCounter;
+    private Counter receivedCounter;
+    private Counter resyncCounter;
+
+    @PostConstruct
+    public void start() {
+        publishedCounter = Counter.builder("apms.invalidation.published")
+                .description("Invalidation messages sent to other nodes")
+                .register(meterRegistry);
+        receivedCounter = Counter.builder("apms.invalidation.received")
+                .description("Invalidation messages from other nodes applied after coalescing")
+                .register(meterRegistry);
+        resyncCounter = Counter.builder("apms.invalidation.resyncs")
+                .description("Full cache resyncs after a reconnect or an oversized burst")
+                .register(meterRegistry);
+        Gauge.builder("apms.invalidation.connected", this, bus -> bus.connected ? 1 : 0)
+                .description("Whether this node is currently listening for invalidations")
+                .register(meterRegistry);
+
+        if (!enabled || url.isBlank()) {
+            enabled = false;
+            log.info("Cross-node cache invalidation disabled");
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform().name("invalidation-listener").daemon().start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    /**
+     * Tells other nodes to apply {@code invalidation}. Joins the current transaction if there is
+     * one, so the message is delivered on commit; otherwise it goes out immediately. Never throws:
+     * a lost message only means another node serves a stale entry until its TTL runs out.
+     */
+    public void publish(Invalidation invalidation) {
+        if (!enabled) {
+            return;
+        }
+        String payload = nodeId + "|" + invalidation.encode();
+        if (payload.length() > MAX_PAYLOAD_LENGTH) {
+            log.warn("Invalidation too large for NOTIFY ({} chars), other nodes will resync", payload.length());
+            payload = nodeId + "|*";
+        }
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, payload);
+            publishedCounter.increment();
+        } catch (DataAccessException e) {
+            log.warn("Could not publish invalidation {}: {}", invalidation, e.getMessage());
+        }
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void listen() {
+        long backoffMs = 500;
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                connected = true;
+                backoffMs = 500;
+                log.info("Listening for cache invalidations on channel {} as node {}", CHANNEL, nodeId);
+                // Whatever was published while we weren't listening is lost
+                if (reconnecting) {
+                    resync("reconnected");
+                }
+                receive(connection, connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listener disconnected: {}; retrying in {} ms", e.getMessage(), backoffMs);
+                }
+            } finally {
+                connected = false;
+            }
+
+            reconnecting = true;
+            if (!sleep(backoffMs)) {
+                return;
+            }
+            backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    private void receive(Connection connection, PGConnection pgConnection) throws SQLException {
+        long lastActivity = System.nanoTime();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications((int) Math.max(coalesceMs, 1000));
+            if (notifications == null || notifications.length == 0) {
+                // A silently dropped TCP connection never delivers anything; poke it now and then
+                if (System.nanoTime() - lastActivity > TimeUnit.MILLISECONDS.toNanos(keepaliveMs)) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("SELECT 1");
+                    }
+                    lastActivity = System.nanoTime();
+                }
+                continue;
+            }
+            lastActivity = System.nanoTime();
+
+            // Coalesce the burst: keep collecting for a short window, de-duplicating as we go
+            Set<String> batch = new LinkedHashSet<>();
+            collect(notifications, batch);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coalesceMs);
+            while (batch.size() <= maxBatch) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    break;
+                }
+                collect(pgConnection.getNotifications((int) remainingMs), batch);
+            }
+            apply(batch);
+        }
+    }
+
+    private void collect(PGNotification[] notifications, Set<String> batch) {
+        if (notifications == null) {
+            return;
+        }
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            int separator = payload.indexOf('|');
+            boolean ownMessage = separator == nodeId.length() && payload.startsWith(nodeId);
+            if (separator > 0 && !ownMessage) {
+                batch.add(payload.substring(separator + 1));
+            }
+        }
+    }
+
+    private void apply(Set<String> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() > maxBatch || batch.contains("*")) {
+            resync(batch.size() + " invalidations in one burst");
+            return;
+        }
+
+        List<InvalidationListener> targets = listeners.orderedStream().toList();
+        for (String payload : batch) {
+            Invalidation invalidation;
+            try {
+                invalidation = Invalidation.decode(payload);
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring invalidation: {}", e.getMessage());
+                continue;
+            }
+            for (InvalidationListener listener : targets) {
+                try {
+                    listener.onInvalidation(invalidation);
+                } catch (RuntimeException e) {
+                    log.error("Cache listener {} failed on {}", listener.getClass().getSimpleName(), invalidation, e);
+                }
+            }
+            receivedCounter.increment();
+        }
+        log.debug("Applied {} invalidations from other nodes", batch.size());
+    }
+
+    private void resync(String reason) {
+        log.info("Resyncing caches: {}", reason);
+        resyncCounter.increment();
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onResync();
+            } catch (RuntimeException e) {
+                log.error("Cache listener {} failed to resync", listener.getClass().getSimpleName(), e);
+            }
+        });
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return running;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
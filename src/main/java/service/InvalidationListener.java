@@ -0,0 +1,18 @@
+package service;
+
+/**
+ * An in-process cache that must follow writes made on other nodes. Implementations are picked up
+ * by {@link InvalidationBus} and called on its listener thread.
+ */
+public interface InvalidationListener {
+
+    /**
+     * Applies an invalidation published by another node.
+     */
+    void onInvalidation(Invalidation invalidation);
+
+    /**
+     * Messages may have been missed (the bus was disconnected or a burst overflowed): drop everything.
+     */
+    void onResync();
+}
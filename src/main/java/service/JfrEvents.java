@@ -0,0 +1,104 @@
+package service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom Flight Recorder events, so domain activity lines up with allocation, lock and GC data
+ * in the continuous recording (see {@link FlightRecorderService}).
+ * <p>
+ * Events are cheap when the recording is off: {@code begin()} and {@code commit()} are no-ops
+ * unless the event type is enabled. None of them capture stack traces.
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {
+        // Holder for event types
+    }
+
+    @Name("apms.TokenRotated")
+    @Label("Token Rotated")
+    @Category({"APMS", "Auth"})
+    @StackTrace(false)
+    public static class TokenRotated extends Event {
+        @Label("User Id")
+        public String userId;
+
+        @Label("Token Family")
+        public String tokenFamily;
+
+        @Label("Rotation Count")
+        public int rotationCount;
+    }
+
+    @Name("apms.ReuseDetected")
+    @Label("Refresh Token Reuse Detected")
+    @Category({"APMS", "Auth"})
+    @StackTrace(false)
+    public static class ReuseDetected extends Event {
+        @Label("User Id")
+        public String userId;
+
+        @Label("Token Family")
+        public String tokenFamily;
+    }
+
+    @Name("apms.GitHubSyncCompleted")
+    @Label("GitHub Sync Completed")
+    @Description("One GitHub repository sync; the event duration is the sync time")
+    @Category({"APMS", "GitHub"})
+    @StackTrace(false)
+    public static class GitHubSyncCompleted extends Event {
+        @Label("User Id")
+        public String userId;
+
+        @Label("Outcome")
+        public String outcome;
+
+        @Label("Repositories Listed")
+        public int repositories;
+
+        @Label("Repositories Imported")
+        public int imported;
+
+        @Label("Repositories Skipped")
+        public int skipped;
+    }
+
+    @Name("apms.ProjectListServed")
+    @Label("Project List Served")
+    @Description("A project list response; the event duration is the handler time including GitHub sync")
+    @Category({"APMS", "Projects"})
+    @StackTrace(false)
+    public static class ProjectListServed extends Event {
+        @Label("Endpoint")
+        public String endpoint;
+
+        @Label("User Id")
+        public String userId;
+
+        @Label("Rows")
+        public int rows;
+
+        @Label("JDBC Statements")
+        public int queries;
+    }
+
+    @Name("apms.PasswordHashed")
+    @Label("Password Hashed")
+    @Description("One password hash or verification on the hashing pool")
+    @Category({"APMS", "Auth"})
+    @StackTrace(false)
+    public static class PasswordHashed extends Event {
+        @Label("Operation")
+        public String operation;
+
+        @Label("Queue Depth")
+        @Description("Hash requests waiting when this one started")
+        public int queueDepth;
+    }
+}
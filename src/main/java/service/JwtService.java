@@ -3,6 +3,10 @@ package service;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -26,9 +30,27 @@ public class JwtService {
     @Value("${jwt.refresh-token-expiration}")
     private long refreshTokenExpiration;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // Constants for day-based expiration (in seconds)
     private static final long SECONDS_PER_DAY = 86400L; // 24 * 60 * 60
 
+    private Timer signTimer;
+    private Timer verifyTimer;
+
+    @PostConstruct
+    public void initMetrics() {
+        signTimer = Timer.builder("apms.jwt")
+                .description("JWT signing and signature verification")
+                .tag("operation", "sign")
+                .register(meterRegistry);
+        verifyTimer = Timer.builder("apms.jwt")
+                .description("JWT signing and signature verification")
+                .tag("operation", "verify")
+                .register(meterRegistry);
+    }
+
     public String generateAccessToken(UUID userId, String username, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId.toString());
@@ -52,6 +74,8 @@ public class JwtService {
         claims.put("userId", userId.toString());
         claims.put("type", "refresh");
         claims.put("role", role);
+        // Unique per token: iat/exp have one-second resolution and refresh tokens are stored under a unique key
+        claims.put(Claims.ID, UUID.randomUUID().toString());
         return createToken(claims, username, refreshTokenExpiration);
     }
 
@@ -61,18 +85,19 @@ public class JwtService {
         claims.put("type", "refresh");
         claims.put("role", role);
         claims.put("rememberMe", true); // Mark as remember me token
+        claims.put(Claims.ID, UUID.randomUUID().toString());
         long expirationSeconds = expirationDays * SECONDS_PER_DAY;
         return createToken(claims, username, expirationSeconds);
     }
 
     private String createToken(Map<String, Object> claims, String subject, long expiration) {
-        return Jwts.builder()
+        return signTimer.record(() -> Jwts.builder()
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration * 1000))
                 .signWith(getSignInKey())
-                .compact();
+                .compact());
     }
 
     public String extractUsername(String token) {
@@ -107,11 +132,11 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
+        return verifyTimer.record(() -> Jwts.parser()
                 .verifyWith(getSignInKey())
                 .build()
                 .parseSignedClaims(token)
-                .getPayload();
+                .getPayload());
     }
 
     public boolean isTokenExpired(String token) {
@@ -0,0 +1,274 @@
+package service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throttles /api/auth/login before any database lookup or password hashing.
+ * <p>
+ * Every attempt takes a token from a per-username and a per-IP bucket; both are checked before
+ * either is charged, so a rejected attempt costs nothing. Consecutive credential failures beyond
+ * a free allowance put the key into an exponentially growing lockout, so repeat offenders are
+ * slowed down progressively. State lives in bounded maps and idle entries are evicted.
+ */
+@Service
+public class LoginThrottleService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginThrottleService.class);
+
+    // System.nanoTime() can be any value, including 0 or negative, so "never" needs its own marker
+    private static final long NEVER = Long.MIN_VALUE;
+
+    @Value("${apms.login-throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apms.login-throttle.username.capacity:5}")
+    private int usernameCapacity;
+
+    @Value("${apms.login-throttle.username.refill-seconds:12}")
+    private long usernameRefillSeconds;
+
+    @Value("${apms.login-throttle.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${apms.login-throttle.ip.refill-seconds:3}")
+    private long ipRefillSeconds;
+
+    @Value("${apms.login-throttle.free-failures:5}")
+    private int freeFailures;
+
+    @Value("${apms.login-throttle.base-lockout-seconds:2}")
+    private long baseLockoutSeconds;
+
+    @Value("${apms.login-throttle.max-lockout-seconds:900}")
+    private long maxLockoutSeconds;
+
+    @Value("${apms.login-throttle.failure-window-seconds:900}")
+    private long failureWindowSeconds;
+
+    @Value("${apms.login-throttle.max-entries:100000}")
+    private int maxEntries;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SecurityEventJournal securityEventJournal;
+
+    private final Map<String, ThrottleEntry> usernameEntries = new ConcurrentHashMap<>();
+    private final Map<String, ThrottleEntry> ipEntries = new ConcurrentHashMap<>();
+
+    private Counter allowedCounter;
+    private Counter rejectedUsernameCounter;
+    private Counter rejectedIpCounter;
+    private Counter rejectedLockoutCounter;
+    private Counter lockoutCounter;
+
+    private static final class ThrottleEntry {
+        final TokenBucket bucket;
+        final AtomicInteger consecutiveFailures = new AtomicInteger();
+        final AtomicLong lockedUntilNanos = new AtomicLong(NEVER);
+        volatile long lastFailureNanos = NEVER;
+
+        ThrottleEntry(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        allowedCounter = outcomeCounter("allowed");
+        rejectedUsernameCounter = outcomeCounter("rejected_username");
+        rejectedIpCounter = outcomeCounter("rejected_ip");
+        rejectedLockoutCounter = outcomeCounter("rejected_lockout");
+        lockoutCounter = Counter.builder("apms.login.throttle.lockouts")
+                .description("Usernames or IPs put into a login lockout")
+                .register(meterRegistry);
+        Gauge.builder("apms.login.throttle.tracked", usernameEntries, Map::size)
+                .tag("key", "username")
+                .register(meterRegistry);
+        Gauge.builder("apms.login.throttle.tracked", ipEntries, Map::size)
+                .tag("key", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a login attempt token for the username and the client IP.
+     *
+     * @return 0 if the attempt may proceed, otherwise the number of seconds to wait
+     */
+    public long acquire(String username, String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        ThrottleEntry userEntry = entry(usernameEntries, normalize(username), usernameCapacity, usernameRefillSeconds);
+        ThrottleEntry ipEntry = entry(ipEntries, clientIp, ipCapacity, ipRefillSeconds);
+
+        long lockout = Math.max(lockoutRemaining(userEntry, now), lockoutRemaining(ipEntry, now));
+        if (lockout > 0) {
+            rejectedLockoutCounter.increment();
+            return toRetryAfterSeconds(lockout);
+        }
+        // Check both buckets before charging either, so a rejection doesn't drain the other key
+        long ipWait = ipEntry != null ? ipEntry.bucket.nanosUntilAvailable(now) : 0;
+        if (ipWait > 0) {
+            rejectedIpCounter.increment();
+            return toRetryAfterSeconds(ipWait);
+        }
+        long userWait = userEntry != null ? userEntry.bucket.nanosUntilAvailable(now) : 0;
+        if (userWait > 0) {
+            rejectedUsernameCounter.increment();
+            return toRetryAfterSeconds(userWait);
+        }
+        // A concurrent attempt can still take the last token in between; then this one is rejected
+        if (ipEntry != null && !ipEntry.bucket.tryConsume(now)) {
+            rejectedIpCounter.increment();
+            return toRetryAfterSeconds(ipEntry.bucket.nanosUntilAvailable(now));
+        }
+        if (userEntry != null && !userEntry.bucket.tryConsume(now)) {
+            rejectedUsernameCounter.increment();
+            return toRetryAfterSeconds(userEntry.bucket.nanosUntilAvailable(now));
+        }
+        allowedCounter.increment();
+        return 0;
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        registerFailure(usernameEntries.get(normalize(username)), now, username, "username");
+        registerFailure(clientIp != null ? ipEntries.get(clientIp) : null, now, username, "ip " + clientIp);
+    }
+
+    public void recordSuccess(String username) {
+        if (!enabled) {
+            return;
+        }
+        // Only the username is forgiven: one valid login from an IP says nothing about its other attempts
+        ThrottleEntry entry = usernameEntries.get(normalize(username));
+        if (entry != null) {
+            entry.consecutiveFailures.set(0);
+            entry.lockedUntilNanos.set(NEVER);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleEntries() {
+        long now = System.nanoTime();
+        int removed = evictIdle(usernameEntries, now) + evictIdle(ipEntries, now);
+        if (removed > 0) {
+            log.debug("Evicted {} idle login throttle entries", removed);
+        }
+    }
+
+    private void registerFailure(ThrottleEntry entry, long now, String username, String key) {
+        if (entry == null) {
+            return;
+        }
+        if (!failedWithin(entry, now, TimeUnit.SECONDS.toNanos(failureWindowSeconds))) {
+            entry.consecutiveFailures.set(0);
+        }
+        entry.lastFailureNanos = now;
+
+        int failures = entry.consecutiveFailures.incrementAndGet();
+        if (failures <= freeFailures) {
+            return;
+        }
+        // 2s, 4s, 8s ... capped at maxLockoutSeconds
+        int exponent = Math.min(failures - freeFailures - 1, 20);
+        long lockoutSeconds = Math.min(baseLockoutSeconds << exponent, maxLockoutSeconds);
+        entry.lockedUntilNanos.set(now + TimeUnit.SECONDS.toNanos(lockoutSeconds));
+        lockoutCounter.increment();
+
+        log.warn("Login lockout of {}s for {} after {} consecutive failures", lockoutSeconds, key, failures);
+        securityEventJournal.record(SecurityEventJournal.EventType.LOGIN_THROTTLED, null, username,
+                key + " locked " + lockoutSeconds + "s");
+    }
+
+    private ThrottleEntry entry(Map<String, ThrottleEntry> entries, String key, int capacity, long refillSeconds) {
+        if (key == null) {
+            return null;
+        }
+        ThrottleEntry existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom(entries);
+        }
+        return entries.computeIfAbsent(key,
+                k -> new ThrottleEntry(new TokenBucket(capacity, TimeUnit.SECONDS.toNanos(refillSeconds))));
+    }
+
+    private void makeRoom(Map<String, ThrottleEntry> entries) {
+        long now = System.nanoTime();
+        evictIdle(entries, now);
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        // Still full: drop unlocked entries until we are back under 90% of the bound
+        int target = maxEntries - maxEntries / 10;
+        Iterator<ThrottleEntry> iterator = entries.values().iterator();
+        while (entries.size() > target && iterator.hasNext()) {
+            if (lockoutRemaining(iterator.next(), now) == 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private int evictIdle(Map<String, ThrottleEntry> entries, long now) {
+        long failureWindow = TimeUnit.SECONDS.toNanos(failureWindowSeconds);
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.bucket.isFull(now)
+                && lockoutRemaining(entry, now) == 0
+                && !failedWithin(entry, now, failureWindow));
+        return before - entries.size();
+    }
+
+    private long lockoutRemaining(ThrottleEntry entry, long now) {
+        if (entry == null) {
+            return 0;
+        }
+        long lockedUntil = entry.lockedUntilNanos.get();
+        return lockedUntil == NEVER ? 0 : Math.max(0L, lockedUntil - now);
+    }
+
+    private static boolean failedWithin(ThrottleEntry entry, long now, long windowNanos) {
+        long lastFailure = entry.lastFailureNanos;
+        return lastFailure != NEVER && now - lastFailure <= windowNanos;
+    }
+
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("apms.login.throttle")
+                .description("Login attempts by throttle outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static long toRetryAfterSeconds(long nanos) {
+        return Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static String normalize(String username) {
+        return username == null ? null : username.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,197 @@
+package service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import repository.UserRepository;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a dedicated, CPU-sized pool with a bounded queue.
+ * <p>
+ * BCrypt costs ~100 ms of CPU per call. Keeping it off request threads (and out of any
+ * transaction) means a login storm can't hold JDBC connections or starve other endpoints;
+ * when the queue is full callers get a fast {@link PasswordHashingUnavailableException}.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${apms.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${apms.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${apms.password-hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Counter rejectedCounter;
+    private Counter upgradedCounter;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        encodeTimer = Timer.builder("apms.password.hash")
+                .description("Time spent hashing passwords on the hashing pool")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        matchesTimer = Timer.builder("apms.password.hash")
+                .description("Time spent hashing passwords on the hashing pool")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("apms.password.hash.rejected")
+                .description("Hash requests rejected because the pool was saturated or timed out")
+                .register(meterRegistry);
+        upgradedCounter = Counter.builder("apms.password.hash.upgraded")
+                .description("Stored password hashes re-hashed with the current encoder settings")
+                .register(meterRegistry);
+        Gauge.builder("apms.password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hash requests waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("apms.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(meterRegistry);
+
+        log.info("Password hashing pool started with {} threads and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> recordHash("encode", encodeTimer,
+                () -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> recordHash("matches", matchesTimer,
+                () -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Re-hashes a just-verified password in the background when the stored hash uses an outdated
+     * encoder or cost. Best effort: if the pool is busy the upgrade is simply retried on a later login.
+     */
+    public void upgradeHashIfNeeded(UUID userId, String rawPassword, String storedHash) {
+        if (!passwordEncoder.upgradeEncoding(storedHash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    String newHash = recordHash("upgrade", encodeTimer,
+                            () -> passwordEncoder.encode(rawPassword));
+                    // Only replace the hash we verified, in case the password changed meanwhile
+                    int updated = userRepository.replacePasswordHash(userId, storedHash, newHash);
+                    if (updated > 0) {
+                        upgradedCounter.increment();
+                        log.info("Upgraded password hash for user ID: {}", userId);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Password hash upgrade failed for user ID {}: {}", userId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Skipping password hash upgrade for user ID {} - hashing pool is busy", userId);
+        }
+    }
+
+    /**
+     * Runs one hash on the calling (pool) thread, timed by {@code timer} and as a JFR event.
+     */
+    private <T> T recordHash(String operation, Timer timer, Supplier<T> hash) {
+        JfrEvents.PasswordHashed event = new JfrEvents.PasswordHashed();
+        int queueDepth = event.isEnabled() ? executor.getQueue().size() : 0;
+        event.begin();
+        try {
+            return timer.record(hash);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.queueDepth = queueDepth;
+                event.commit();
+            }
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingUnavailableException("Password hashing capacity exhausted", e);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new PasswordHashingUnavailableException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
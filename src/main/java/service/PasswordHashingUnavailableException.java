@@ -0,0 +1,16 @@
+package service;
+
+/**
+ * Thrown when the password hashing pool is saturated or a hash did not finish in time.
+ * Mapped to 503 so clients back off instead of piling more work onto the node.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,228 @@
+package service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import dto.ProjectsResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of the serialized /api/projects response.
+ * <p>
+ * Bodies are kept as JSON byte arrays: one compact, pointer-free object per user instead of a
+ * graph of DTOs, strings and dates, and a hit is written straight to the response. Each entry
+ * remembers the {@link UserDataVersions} tag it was loaded under and only serves while that tag
+ * is current, so every project write (create, update, delete, assign, progress, GitHub import)
+ * invalidates exactly the creator's and assignees' entries the moment it commits, on any node.
+ * The entries named by each invalidation, local or remote, are also dropped to free the memory.
+ * The cache is bounded by total bytes (apms.project-list-cache.max-bytes); past that the least
+ * recently read entries go first.
+ */
+@Service
+public class ProjectListCache implements InvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectListCache.class);
+
+    @Value("${apms.project-list-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apms.project-list-cache.max-bytes:33554432}")
+    private long maxBytes;
+
+    @Value("${apms.project-list-cache.max-entry-bytes:1048576}")
+    private int maxEntryBytes;
+
+    @Value("${apms.project-list-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Autowired
+    private ObjectProvider<ObjectMapper> objectMapperProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private ObjectMapper objectMapper;
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    /**
+     * A serialized project list and how many projects it holds.
+     */
+    public record CachedList(byte[] body, int rows) {
+    }
+
+    private static final class Entry {
+        final String version;
+        final CachedList list;
+        final long expiresAtNanos;
+        volatile long lastReadNanos;
+
+        Entry(String version, CachedList list, long now, long expiresAtNanos) {
+            this.version = version;
+            this.list = list;
+            this.expiresAtNanos = expiresAtNanos;
+            this.lastReadNanos = now;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // Same settings as the MVC converter: ISO dates rather than timestamps
+        objectMapper = objectMapperProvider.getIfAvailable(() -> JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+
+        hitCounter = Counter.builder("apms.project.list.cache")
+                .description("Project list reads served from the serialized response cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        missCounter = Counter.builder("apms.project.list.cache")
+                .description("Project list reads served from the serialized response cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("apms.project.list.cache.hit.ratio", this, ProjectListCache::hitRatio)
+                .description("Share of project list reads served from the cache since startup")
+                .register(meterRegistry);
+        Gauge.builder("apms.project.list.cache.size", entries, Map::size)
+                .description("Cached project list responses")
+                .register(meterRegistry);
+        Gauge.builder("apms.project.list.cache.bytes", totalBytes, AtomicLong::get)
+                .description("Bytes held by cached project list responses")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the user's serialized project list, loading and caching it if the cached copy is
+     * missing or was loaded under an older {@code version}.
+     *
+     * @param version the user's current tag from {@link UserDataVersions}, taken before calling
+     */
+    public CachedList get(UUID userId, String version, Supplier<List<ProjectsResponse>> loader) {
+        if (!enabled) {
+            return serialize(loader.get());
+        }
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.version.equals(version) && entry.expiresAtNanos - now > 0) {
+            entry.lastReadNanos = now;
+            hitCounter.increment();
+            return entry.list;
+        }
+        missCounter.increment();
+
+        CachedList list = serialize(loader.get());
+        if (list.body().length <= maxEntryBytes) {
+            put(userId, new Entry(version, list, now, now + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        } else if (entry != null) {
+            remove(userId);
+        }
+        return list;
+    }
+
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        switch (invalidation) {
+            case Invalidation.ProjectChanged project -> project.affectedUsers().forEach(this::remove);
+            case Invalidation.UserChanged user -> remove(user.userId());
+            case Invalidation.TokenRevoked token -> {
+                // Sessions don't change project lists
+            }
+            case Invalidation.TokenFamilyRevoked family -> {
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        entries.keySet().forEach(this::remove);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        entries.forEach((userId, entry) -> {
+            if (entry.expiresAtNanos - now <= 0) {
+                remove(userId, entry);
+            }
+        });
+    }
+
+    private void put(UUID userId, Entry entry) {
+        Entry previous = entries.put(userId, entry);
+        long size = totalBytes.addAndGet(entry.list.body().length - (previous != null ? previous.list.body().length : 0));
+        if (size > maxBytes) {
+            evictLeastRecentlyRead();
+        }
+    }
+
+    private void remove(UUID userId) {
+        Entry removed = entries.remove(userId);
+        if (removed != null) {
+            totalBytes.addAndGet(-removed.list.body().length);
+        }
+    }
+
+    private void remove(UUID userId, Entry entry) {
+        if (entries.remove(userId, entry)) {
+            totalBytes.addAndGet(-entry.list.body().length);
+        }
+    }
+
+    private synchronized void evictLeastRecentlyRead() {
+        if (totalBytes.get() <= maxBytes) {
+            return;
+        }
+        // Down to 90% of the budget, so we don't sort on every insert while at the limit
+        long target = maxBytes - maxBytes / 10;
+        List<Map.Entry<UUID, Entry>> candidates = new ArrayList<>(entries.entrySet());
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastReadNanos));
+        int evicted = 0;
+        for (Map.Entry<UUID, Entry> candidate : candidates) {
+            if (totalBytes.get() <= target) {
+                break;
+            }
+            remove(candidate.getKey(), candidate.getValue());
+            evicted++;
+        }
+        log.debug("Project list cache over {} bytes, evicted {} entries", maxBytes, evicted);
+    }
+
+    private CachedList serialize(List<ProjectsResponse> projects) {
+        try {
+            return new CachedList(objectMapper.writeValueAsBytes(projects), projects.size());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize project list", e);
+        }
+    }
+
+    private double hitRatio() {
+        double hits = hitCounter.count();
+        double total = hits + missCounter.count();
+        return total == 0 ? 0 : hits / total;
+    }
+}
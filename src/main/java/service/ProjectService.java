@@ -27,6 +27,9 @@ public class ProjectService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDataVersions userDataVersions;
+
     @Transactional(readOnly = true)
     public List<ProjectsResponse> getAccessibleProjectsForUser(Users user) {
         List<Projects> projects = projectRepository.findAccessibleProjects(user, user.getId());
@@ -96,7 +99,9 @@ public class ProjectService {
         project.setStartDate(startDate);
         project.setEndDate(endDate);
         project.setProgress(progress);
-        return projectRepository.save(project);
+        Projects saved = projectRepository.save(project);
+        userDataVersions.projectChanged(saved.getId(), user.getId());
+        return saved;
     }
 
     public Projects createGlobalProject(String name, String description, Users admin,
@@ -116,15 +121,18 @@ public class ProjectService {
         project.setStartDate(startDate);
         project.setEndDate(endDate);
         project.setAssignedTo(assignedTo);
-        return projectRepository.save(project);
+        Projects saved = projectRepository.save(project);
+        userDataVersions.projectChanged(saved.getId(), admin.getId(), assignedTo);
+        return saved;
     }
 
+    @Transactional
     public Projects assignGlobalProject(UUID projectId, UUID userId, Users admin) {
         if (!admin.isAdmin()) {
             throw new RuntimeException("Only admins can assign global projects");
         }
 
-        Optional<Projects> projectOpt = projectRepository.findById(projectId);
+        Optional<Projects> projectOpt = projectRepository.findByIdWithCreator(projectId);
         Optional<Users> userOpt = userRepository.findById(userId);
 
         if (projectOpt.isEmpty() || userOpt.isEmpty()) {
@@ -136,8 +144,11 @@ public class ProjectService {
             throw new RuntimeException("Only global projects can be assigned");
         }
 
+        UUID previousAssignee = project.getAssignedTo();
         project.setAssignedTo(userId);
-        return projectRepository.save(project);
+        Projects saved = projectRepository.save(project);
+        userDataVersions.projectChanged(projectId, createdById(saved), previousAssignee, userId);
+        return saved;
     }
 
     public List<Projects> getUserProjects(Users user) {
@@ -159,8 +170,9 @@ public class ProjectService {
         return projectRepository.findByIsGlobalTrue();
     }
 
+    @Transactional
     public Projects updateProject(UUID projectId, Projects updatedProject, Users user) {
-        Optional<Projects> projectOpt = projectRepository.findById(projectId);
+        Optional<Projects> projectOpt = projectRepository.findByIdWithCreator(projectId);
         if (projectOpt.isEmpty()) {
             throw new RuntimeException("Project not found");
         }
@@ -198,9 +210,12 @@ public class ProjectService {
             project.setEndDate(updatedProject.getEndDate());
         }
 
-        return projectRepository.save(project);
+        Projects saved = projectRepository.save(project);
+        userDataVersions.projectChanged(projectId, createdById(saved), saved.getAssignedTo());
+        return saved;
     }
 
+    @Transactional
     public void deleteProject(UUID projectId, Users user) {
         Optional<Projects> projectOpt = projectRepository.findById(projectId);
         if (projectOpt.isEmpty()) {
@@ -221,6 +236,7 @@ public class ProjectService {
         }
 
         projectRepository.delete(project);
+        userDataVersions.projectChanged(projectId, createdById(project), project.getAssignedTo());
     }
 
     public ProjectStats getUserProjectStats(Users user) {
@@ -243,12 +259,13 @@ public class ProjectService {
         return new ProjectStats(totalProjects, planningProjects, inProgressProjects, completedProjects, onHoldProjects);
     }
 
+    @Transactional
     public Projects updateProjectProgress(UUID projectId, Integer progress, Users user) {
         if (progress < 0 || progress > 100) {
             throw new IllegalArgumentException("Progress must be between 0 and 100");
         }
 
-        Optional<Projects> projectOpt = projectRepository.findById(projectId);
+        Optional<Projects> projectOpt = projectRepository.findByIdWithCreator(projectId);
         if (projectOpt.isEmpty()) {
             throw new RuntimeException("Project not found");
         }
@@ -267,7 +284,9 @@ public class ProjectService {
             project.setStatus(Projects.ProjectStatus.IN_PROGRESS);
         }
 
-        return projectRepository.save(project);
+        Projects saved = projectRepository.save(project);
+        userDataVersions.projectChanged(projectId, createdById(saved), saved.getAssignedTo());
+        return saved;
     }
 
     private boolean canUserAccessProject(Projects project, Users user) {
@@ -279,6 +298,10 @@ public class ProjectService {
         }
     }
 
+    private static UUID createdById(Projects project) {
+        return project.getCreatedBy() != null ? project.getCreatedBy().getId() : null;
+    }
+
     public long getAssignedProjectsCount(Users user) {
         return projectRepository.countByAssignedTo(user.getId());
     }
@@ -288,7 +311,7 @@ public class ProjectService {
         if (!admin.isAdmin()) {
             throw new RuntimeException("Only admins can view all projects");
         }
-        return projectRepository.findAll();
+        return projectRepository.findAllWithCreator();
     }
 
     @Transactional(readOnly = true)
@@ -315,12 +338,13 @@ public class ProjectService {
             throw new RuntimeException("Only admins can update any project");
         }
 
-        Optional<Projects> projectOpt = projectRepository.findById(projectId);
+        Optional<Projects> projectOpt = projectRepository.findByIdWithCreator(projectId);
         if (projectOpt.isEmpty()) {
             throw new RuntimeException("Project not found");
         }
 
         Projects project = projectOpt.get();
+        UUID previousAssignee = project.getAssignedTo();
 
         if (updatedProject.getName() != null) {
             project.setName(updatedProject.getName());
@@ -350,7 +374,9 @@ public class ProjectService {
             project.setAssignedTo(updatedProject.getAssignedTo());
         }
 
-        return projectRepository.save(project);
+        Projects saved = projectRepository.save(project);
+        userDataVersions.projectChanged(projectId, createdById(saved), previousAssignee, saved.getAssignedTo());
+        return saved;
     }
 
     @Transactional
@@ -364,7 +390,9 @@ public class ProjectService {
             throw new RuntimeException("Project not found");
         }
 
-        projectRepository.delete(projectOpt.get());
+        Projects project = projectOpt.get();
+        projectRepository.delete(project);
+        userDataVersions.projectChanged(projectId, createdById(project), project.getAssignedTo());
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,122 @@
+package service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution for idempotent reads: concurrent calls with the same route and key share
+ * one computation instead of each running it.
+ * <p>
+ * The first caller (the leader) computes on its own thread; callers arriving meanwhile wait for its
+ * result for at most apms.coalescing.wait-timeout-ms and then compute on their own, or take a
+ * fallback for computations that must not run twice concurrently (see the overload). Nothing is
+ * cached: the entry is removed as soon as the leader finishes. A leader's failure is not handed to
+ * its waiters; they coalesce once more among themselves, and compute on their own if that fails too.
+ * Keys should include everything the result depends on (user, data version), so a waiter never
+ * receives a result older than one it would have computed itself.
+ */
+@Service
+public class RequestCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    @Value("${apms.coalescing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apms.coalescing.wait-timeout-ms:3000}")
+    private long waitTimeoutMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("apms.coalescing.inflight", inFlight, Map::size)
+                .description("Distinct coalesced computations currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code computation}, or waits for an identical one already running.
+     *
+     * @param route low-cardinality name of the read, used as the metric tag
+     * @param key   identifies identical requests within the route
+     */
+    public <T> T execute(String route, String key, Supplier<T> computation) {
+        return execute(route, key, computation, computation);
+    }
+
+    /**
+     * Like {@link #execute(String, String, Supplier)}, but a waiter whose wait times out returns
+     * {@code onTimeout} instead of running {@code computation} alongside the still-running leader.
+     */
+    public <T> T execute(String route, String key, Supplier<T> computation, Supplier<T> onTimeout) {
+        if (!enabled) {
+            return computation.get();
+        }
+        return execute(route, route + ":" + key, computation, onTimeout, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T execute(String route, String flightKey, Supplier<T> computation, Supplier<T> onTimeout,
+                          boolean retryAfterLeaderFailure) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing == null) {
+            count(route, "leader");
+            try {
+                T result = computation.get();
+                flight.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, flight);
+            }
+        }
+
+        count(route, "joined");
+        try {
+            return (T) existing.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            count(route, "timeout");
+            log.debug("Coalesced {} still running after {} ms, not waiting any longer", route, waitTimeoutMs);
+            return onTimeout.get();
+        } catch (ExecutionException e) {
+            count(route, "leader_failed");
+            log.debug("Coalesced {} failed in its leader ({}), retrying", route, e.getCause().toString());
+            return retryAfterLeaderFailure
+                    ? execute(route, flightKey, computation, onTimeout, false)
+                    : computation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced " + route + " request", e);
+        }
+    }
+
+    private void count(String route, String outcome) {
+        Counter.builder("apms.coalescing.requests")
+                .description("Coalesced reads by role: leader computed, joined waited, then timeout or leader_failed fallbacks")
+                .tags("route", route, "outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
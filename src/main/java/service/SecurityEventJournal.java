@@ -0,0 +1,426 @@
+package service;
+
+import dto.SecurityEventResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only journal of security events, stored as fixed-size binary records in a ring of
+ * memory-mapped segment files.
+ * <p>
+ * Callers only enqueue onto a lock-free queue; a single writer thread owns the mapped segments and
+ * stays parked while there is nothing to write.
+ * When the queue is full the event is dropped and counted, so recording never blocks a request.
+ */
+@Service
+public class SecurityEventJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityEventJournal.class);
+
+    public enum EventType {
+        TOKEN_REUSE,
+        ROTATION_RATE_LIMIT,
+        ROTATION_LIMIT_EXCEEDED,
+        LOGIN_UNKNOWN_USER,
+        LOGIN_BAD_CREDENTIALS,
+        LOGIN_ACCOUNT_DISABLED,
+        LOGIN_THROTTLED
+    }
+
+    // Segment header layout
+    private static final int MAGIC = 0x41504D53; // "APMS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int GENERATION_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+
+    // Record layout (128 bytes)
+    private static final int RECORD_SIZE = 128;
+    private static final int TIMESTAMP_OFFSET = 0;
+    private static final int USER_ID_MSB_OFFSET = 8;
+    private static final int USER_ID_LSB_OFFSET = 16;
+    private static final int TYPE_OFFSET = 24;
+    private static final int USERNAME_LENGTH_OFFSET = 25;
+    private static final int DETAIL_LENGTH_OFFSET = 26;
+    private static final int USERNAME_OFFSET = 28;
+    private static final int USERNAME_MAX_BYTES = 36;
+    private static final int DETAIL_OFFSET = 64;
+    private static final int DETAIL_MAX_BYTES = 64;
+
+    private static final long OUT_OF_ORDER_LOOK_BACK_MILLIS = 60_000L;
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    @Value("${apms.security-journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apms.security-journal.directory:data/security-journal}")
+    private String directory;
+
+    @Value("${apms.security-journal.segment-count:8}")
+    private int segmentCount;
+
+    @Value("${apms.security-journal.records-per-segment:65536}")
+    private int recordsPerSegment;
+
+    @Value("${apms.security-journal.queue-capacity:8192}")
+    private int queueCapacity;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentLinkedQueue<PendingEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private FileChannel[] channels;
+    private MappedByteBuffer[] segments;
+    private AtomicLongArray generations;
+    private AtomicIntegerArray counts;
+    private int currentSegment;
+
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private record PendingEvent(long timestamp, EventType type, UUID userId, String username, String detail) {
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Security event journal disabled");
+            return;
+        }
+        try {
+            openSegments();
+        } catch (IOException e) {
+            log.error("Could not open security event journal in {} - events will not be journaled", directory, e);
+            return;
+        }
+
+        Gauge.builder("apms.security.journal.queue.depth", queued, AtomicInteger::get)
+                .description("Security events waiting to be written")
+                .register(meterRegistry);
+        FunctionCounter.builder("apms.security.journal.dropped", dropped, LongAdder::sum)
+                .description("Security events dropped because the journal queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("apms.security.journal.written", written, LongAdder::sum)
+                .description("Security events written to the journal")
+                .register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "security-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Security event journal started in {} ({} segments x {} records)",
+                directory, segmentCount, recordsPerSegment);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int i = 0; i < segmentCount; i++) {
+            try {
+                segments[i].force();
+                channels[i].close();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Error closing journal segment {}: {}", i, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Enqueues an event for the writer thread. Never blocks; drops the event if the queue is full.
+     */
+    public void record(EventType type, UUID userId, String username, String detail) {
+        if (!running) {
+            return;
+        }
+        int depth = queued.incrementAndGet();
+        if (depth > queueCapacity) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(new PendingEvent(System.currentTimeMillis(), type, userId, username, detail));
+        if (depth == 1) {
+            // The writer may have parked on an empty queue
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Scans the journal newest-first and returns at most {@code limit} matching events.
+     * Any filter argument may be null. Records keep only the first {@value #USERNAME_MAX_BYTES} bytes
+     * (UTF-8) of a username, so a longer username matches on that prefix and may also find events
+     * of other usernames that share it.
+     */
+    public List<SecurityEventResponse> query(UUID userId, String username, EventType type,
+                                             LocalDateTime from, LocalDateTime to, int limit) {
+        List<SecurityEventResponse> results = new ArrayList<>();
+        if (segments == null || limit <= 0) {
+            return results;
+        }
+
+        long fromMillis = from != null ? toEpochMillis(from) : Long.MIN_VALUE;
+        long toMillis = to != null ? toEpochMillis(to) : Long.MAX_VALUE;
+        String storedUsername = username != null
+                ? new String(encode(username, USERNAME_MAX_BYTES), StandardCharsets.UTF_8)
+                : null;
+
+        Integer[] order = new Integer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> generations.get(i)).reversed());
+
+        for (int segment : order) {
+            long generation = generations.get(segment);
+            int count = counts.get(segment);
+            if (generation == 0 || count == 0) {
+                continue;
+            }
+
+            List<SecurityEventResponse> segmentResults = new ArrayList<>();
+            boolean reachedOlderThanRange = false;
+            MappedByteBuffer buffer = segments[segment];
+
+            for (int index = count - 1; index >= 0 && results.size() + segmentResults.size() < limit; index--) {
+                int offset = HEADER_SIZE + index * RECORD_SIZE;
+                long timestamp = buffer.getLong(offset + TIMESTAMP_OFFSET);
+                if (timestamp < fromMillis) {
+                    // Records are only roughly time-ordered (stamped on many request threads before
+                    // being queued, and the wall clock can step back), so keep looking a little further
+                    if (timestamp < fromMillis - OUT_OF_ORDER_LOOK_BACK_MILLIS) {
+                        reachedOlderThanRange = true;
+                        break;
+                    }
+                    continue;
+                }
+                if (timestamp > toMillis) {
+                    continue;
+                }
+                SecurityEventResponse event = readRecord(buffer, offset, timestamp);
+                if (event == null) {
+                    continue;
+                }
+                if (type != null && !type.name().equals(event.getType())) {
+                    continue;
+                }
+                if (userId != null && !userId.equals(event.getUserId())) {
+                    continue;
+                }
+                if (storedUsername != null && !storedUsername.equals(event.getUsername())) {
+                    continue;
+                }
+                segmentResults.add(event);
+            }
+
+            // The writer may have recycled this segment while we were reading it
+            if (generations.get(segment) == generation) {
+                results.addAll(segmentResults);
+            }
+            if (reachedOlderThanRange || results.size() >= limit) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            PendingEvent event = queue.poll();
+            if (event == null) {
+                // queued is raised before an event is offered, so 0 means none is on its way either,
+                // and the record() that raises it to 1 unparks us. Otherwise an offer is about to land.
+                if (queued.get() == 0) {
+                    LockSupport.park(this);
+                } else {
+                    Thread.onSpinWait();
+                }
+                continue;
+            }
+            queued.decrementAndGet();
+            try {
+                append(event);
+                written.increment();
+            } catch (RuntimeException e) {
+                log.error("Failed to append security event {}: {}", event.type(), e.getMessage());
+            }
+        }
+    }
+
+    private void append(PendingEvent event) {
+        int segment = currentSegment;
+        int count = counts.get(segment);
+        if (count >= recordsPerSegment) {
+            segment = rollSegment();
+            count = 0;
+        }
+
+        MappedByteBuffer buffer = segments[segment];
+        int offset = HEADER_SIZE + count * RECORD_SIZE;
+        byte[] username = encode(event.username(), USERNAME_MAX_BYTES);
+        byte[] detail = encode(event.detail(), DETAIL_MAX_BYTES);
+
+        buffer.putLong(offset + TIMESTAMP_OFFSET, event.timestamp());
+        buffer.putLong(offset + USER_ID_MSB_OFFSET, event.userId() != null ? event.userId().getMostSignificantBits() : 0L);
+        buffer.putLong(offset + USER_ID_LSB_OFFSET, event.userId() != null ? event.userId().getLeastSignificantBits() : 0L);
+        buffer.put(offset + TYPE_OFFSET, (byte) event.type().ordinal());
+        buffer.put(offset + USERNAME_LENGTH_OFFSET, (byte) username.length);
+        buffer.put(offset + DETAIL_LENGTH_OFFSET, (byte) detail.length);
+        buffer.put(offset + USERNAME_OFFSET, username);
+        buffer.put(offset + DETAIL_OFFSET, detail);
+
+        // Publish the record only after its bytes are in place
+        buffer.putInt(COUNT_OFFSET, count + 1);
+        counts.set(segment, count + 1);
+    }
+
+    private int rollSegment() {
+        int next = (currentSegment + 1) % segmentCount;
+        long generation = generations.get(currentSegment) + 1;
+
+        counts.set(next, 0);
+        generations.set(next, generation);
+        segments[next].putInt(COUNT_OFFSET, 0);
+        segments[next].putLong(GENERATION_OFFSET, generation);
+
+        currentSegment = next;
+        log.debug("Security journal rolled to segment {} (generation {})", next, generation);
+        return next;
+    }
+
+    private SecurityEventResponse readRecord(MappedByteBuffer buffer, int offset, long timestamp) {
+        int typeOrdinal = buffer.get(offset + TYPE_OFFSET);
+        if (typeOrdinal < 0 || typeOrdinal >= EVENT_TYPES.length) {
+            return null;
+        }
+        long msb = buffer.getLong(offset + USER_ID_MSB_OFFSET);
+        long lsb = buffer.getLong(offset + USER_ID_LSB_OFFSET);
+        UUID userId = (msb == 0L && lsb == 0L) ? null : new UUID(msb, lsb);
+
+        int usernameLength = Math.min(buffer.get(offset + USERNAME_LENGTH_OFFSET) & 0xFF, USERNAME_MAX_BYTES);
+        int detailLength = Math.min(buffer.get(offset + DETAIL_LENGTH_OFFSET) & 0xFF, DETAIL_MAX_BYTES);
+        byte[] username = new byte[usernameLength];
+        byte[] detail = new byte[detailLength];
+        buffer.get(offset + USERNAME_OFFSET, username);
+        buffer.get(offset + DETAIL_OFFSET, detail);
+
+        return new SecurityEventResponse(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()),
+                EVENT_TYPES[typeOrdinal].name(),
+                userId,
+                usernameLength > 0 ? new String(username, StandardCharsets.UTF_8) : null,
+                detailLength > 0 ? new String(detail, StandardCharsets.UTF_8) : null
+        );
+    }
+
+    private void openSegments() throws IOException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+
+        long segmentSize = HEADER_SIZE + (long) recordsPerSegment * RECORD_SIZE;
+        channels = new FileChannel[segmentCount];
+        segments = new MappedByteBuffer[segmentCount];
+        generations = new AtomicLongArray(segmentCount);
+        counts = new AtomicIntegerArray(segmentCount);
+
+        long newestGeneration = -1;
+        for (int i = 0; i < segmentCount; i++) {
+            Path file = dir.resolve("segment-" + i + ".journal");
+            channels[i] = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channels[i].map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segments[i] = buffer;
+
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION) {
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+                buffer.putInt(VERSION_OFFSET, VERSION);
+                buffer.putLong(GENERATION_OFFSET, 0L);
+                buffer.putInt(COUNT_OFFSET, 0);
+            }
+
+            long generation = buffer.getLong(GENERATION_OFFSET);
+            int count = Math.max(0, Math.min(buffer.getInt(COUNT_OFFSET), recordsPerSegment));
+            generations.set(i, generation);
+            counts.set(i, count);
+
+            if (generation > newestGeneration) {
+                newestGeneration = generation;
+                currentSegment = i;
+            }
+        }
+
+        if (generations.get(currentSegment) == 0) {
+            generations.set(currentSegment, 1L);
+            segments[currentSegment].putLong(GENERATION_OFFSET, 1L);
+        }
+    }
+
+    private static byte[] encode(String value, int maxBytes) {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= maxBytes) {
+            return bytes;
+        }
+        // Don't cut a multi-byte character in half
+        int end = maxBytes;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,58 @@
+package service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counters for security incidents raised on the token rotation path.
+ * Incrementing is a single {@link LongAdder} add, so recording never touches the database.
+ */
+@Service
+public class SecurityIncidentMonitor {
+
+    public enum IncidentType {
+        TOKEN_REUSE,
+        ROTATION_RATE_LIMIT,
+        ROTATION_LIMIT_EXCEEDED
+    }
+
+    private final Map<IncidentType, LongAdder> counters = new EnumMap<>(IncidentType.class);
+    private final LocalDateTime countingSince = LocalDateTime.now();
+
+    @Autowired
+    public SecurityIncidentMonitor(MeterRegistry meterRegistry) {
+        for (IncidentType type : IncidentType.values()) {
+            LongAdder adder = new LongAdder();
+            counters.put(type, adder);
+            FunctionCounter.builder("apms.security.incidents", adder, LongAdder::sum)
+                    .description("Security incidents detected since startup")
+                    .tag("type", type.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    public void record(IncidentType type) {
+        counters.get(type).increment();
+    }
+
+    public long count(IncidentType type) {
+        return counters.get(type).sum();
+    }
+
+    public Map<IncidentType, Long> snapshot() {
+        Map<IncidentType, Long> snapshot = new EnumMap<>(IncidentType.class);
+        counters.forEach((type, adder) -> snapshot.put(type, adder.sum()));
+        return snapshot;
+    }
+
+    public LocalDateTime getCountingSince() {
+        return countingSince;
+    }
+}
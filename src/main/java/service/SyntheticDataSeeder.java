@@ -0,0 +1,295 @@
+package service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import repository.ProjectRepository;
+import repository.RefreshTokensRepository;
+import repository.UserRepository;
+import tables.Projects;
+import tables.RefreshTokens;
+import tables.Users;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Seeds a database with synthetic users, projects and refresh-token families for load tests.
+ * <p>
+ * Active with the "seed" profile. Used as a CLI, it exits once done:
+ * {@code java -jar APMS.jar --spring.profiles.active=seed --apms.seed.users=5000}
+ * With apms.seed.exit-when-done=false the app keeps serving afterwards (e.g. "seed,loadtest").
+ * <p>
+ * Data is skewed the way real tenants are: projects and token families per user follow a Zipf
+ * distribution, so a few users own most rows. Every user's password is apms.seed.password;
+ * usernames are seed-user-00001, seed-user-00002, ... and the first apms.seed.admins are admins.
+ * Output is deterministic for a given apms.seed.random-seed. Skips if seed users already exist.
+ */
+@Component
+@Profile("seed")
+public class SyntheticDataSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataSeeder.class);
+
+    public static final String USERNAME_PREFIX = "seed-user-";
+
+    private static final Projects.ProjectStatus[] STATUSES = Projects.ProjectStatus.values();
+    // Roughly how statuses are spread in practice: mostly active work
+    private static final int[] STATUS_WEIGHTS = {15, 45, 10, 25, 5};
+
+    @Value("${apms.seed.users:1000}")
+    private int users;
+
+    @Value("${apms.seed.admins:5}")
+    private int admins;
+
+    @Value("${apms.seed.max-projects-per-user:200}")
+    private int maxProjectsPerUser;
+
+    @Value("${apms.seed.global-projects:200}")
+    private int globalProjects;
+
+    @Value("${apms.seed.github-import-ratio:0.2}")
+    private double githubImportRatio;
+
+    @Value("${apms.seed.github-user-ratio:0.3}")
+    private double githubUserRatio;
+
+    @Value("${apms.seed.max-token-families-per-user:8}")
+    private int maxTokenFamiliesPerUser;
+
+    @Value("${apms.seed.max-rotations-per-family:20}")
+    private int maxRotationsPerFamily;
+
+    @Value("${apms.seed.skew:1.1}")
+    private double skew;
+
+    @Value("${apms.seed.password:seed-password}")
+    private String password;
+
+    @Value("${apms.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${apms.seed.batch-size:500}")
+    private int batchSize;
+
+    @Value("${apms.seed.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private RefreshTokensRepository refreshTokensRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (userRepository.findByUsername(username(1)).isPresent()) {
+            log.warn("Seed users already present, skipping synthetic data generation");
+        } else {
+            seed();
+        }
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private void seed() {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        // One hash for everyone: hashing thousands of passwords would dominate the run
+        String passwordHash = passwordEncoder.encode(password);
+
+        List<Users> seededUsers = new ArrayList<>(users);
+        List<Users> batch = new ArrayList<>(batchSize);
+        for (int i = 1; i <= users; i++) {
+            String githubUser = random.nextDouble() < githubUserRatio ? "seed-gh-" + i : null;
+            Users user = new Users(username(i), username(i) + "@seed.example", passwordHash,
+                    i <= admins ? Users.Role.ADMIN : Users.Role.USER, githubUser);
+            user.setCreatedAt(LocalDateTime.now().minusDays(random.nextInt(730)));
+            batch.add(user);
+            if (batch.size() == batchSize || i == users) {
+                List<Users> toSave = batch;
+                seededUsers.addAll(transactionTemplate.execute(status -> userRepository.saveAll(toSave)));
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        log.info("Seeded {} users", seededUsers.size());
+
+        long projectCount = seedPersonalProjects(seededUsers, random) + seedGlobalProjects(seededUsers, random);
+        log.info("Seeded {} projects", projectCount);
+
+        long tokenCount = seedTokenFamilies(seededUsers, random);
+        log.info("Seeded {} refresh tokens", tokenCount);
+
+        log.info("Synthetic data generation finished in {} s", (System.nanoTime() - start) / 1_000_000_000L);
+    }
+
+    private long seedPersonalProjects(List<Users> seededUsers, SplittableRandom random) {
+        long count = 0;
+        List<Projects> batch = new ArrayList<>(batchSize);
+        for (int rank = 0; rank < seededUsers.size(); rank++) {
+            Users owner = seededUsers.get(rank);
+            int projects = zipf(maxProjectsPerUser, rank, random);
+            for (int p = 0; p < projects; p++) {
+                Projects project = project(owner.getUsername() + " project " + p, owner, false, random);
+                if (random.nextDouble() < githubImportRatio) {
+                    project.setIsGithubImport(true);
+                    String login = owner.getUsernameGHUB() != null ? owner.getUsernameGHUB() : owner.getUsername();
+                    project.setGithubUrl("https://github.com/" + login + "/repo-" + p);
+                }
+                batch.add(project);
+                if (batch.size() == batchSize) {
+                    count += saveProjects(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        return count + saveProjects(batch);
+    }
+
+    private long seedGlobalProjects(List<Users> seededUsers, SplittableRandom random) {
+        List<Users> adminUsers = seededUsers.stream().filter(Users::isAdmin).toList();
+        if (adminUsers.isEmpty()) {
+            return 0;
+        }
+
+        long count = 0;
+        List<Projects> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < globalProjects; i++) {
+            Projects project = project("Global project " + i,
+                    adminUsers.get(random.nextInt(adminUsers.size())), true, random);
+            // Assignments lean towards the busiest users, like the personal projects
+            if (random.nextInt(4) != 0) {
+                int rank = (int) (seededUsers.size() * Math.pow(random.nextDouble(), 3));
+                project.setAssignedTo(seededUsers.get(rank).getId());
+            }
+            batch.add(project);
+            if (batch.size() == batchSize) {
+                count += saveProjects(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        return count + saveProjects(batch);
+    }
+
+    /**
+     * Each family is a rotation chain: older tokens revoked, the newest one live unless the
+     * family was logged out or expired.
+     */
+    private long seedTokenFamilies(List<Users> seededUsers, SplittableRandom random) {
+        long count = 0;
+        List<RefreshTokens> batch = new ArrayList<>(batchSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (int rank = 0; rank < seededUsers.size(); rank++) {
+            Users user = seededUsers.get(rank);
+            int families = zipf(maxTokenFamiliesPerUser, rank, random);
+            for (int f = 0; f < families; f++) {
+                String family = UUID.randomUUID().toString();
+                int rotations = random.nextInt(maxRotationsPerFamily + 1);
+                boolean familyEnded = random.nextInt(3) == 0;
+                String previous = null;
+                for (int r = 0; r <= rotations; r++) {
+                    String token = jwtService.generateRefreshToken(user.getId(), user.getUsername(), user.getRole().name());
+                    RefreshTokens refreshToken = new RefreshTokens(user.getId(), token,
+                            familyEnded ? now.minusDays(1) : jwtService.getRefreshTokenExpirationTime(),
+                            false, family);
+                    refreshToken.setRotationCount(r);
+                    refreshToken.setPreviousToken(previous);
+                    if (r > 0) {
+                        refreshToken.setLastRotatedAt(now.minusMinutes(rotations - r));
+                    }
+                    if (r < rotations) {
+                        refreshToken.revoke();
+                    }
+                    previous = token;
+                    batch.add(refreshToken);
+                    if (batch.size() == batchSize) {
+                        count += saveTokens(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+        }
+        return count + saveTokens(batch);
+    }
+
+    private Projects project(String name, Users owner, boolean global, SplittableRandom random) {
+        LocalDate start = LocalDate.now().minusDays(random.nextInt(365));
+        Projects project = new Projects(name, "Synthetic project for load testing",
+                status(random), Projects.ProjectPriority.values()[random.nextInt(Projects.ProjectPriority.values().length)],
+                start, start.plusDays(30 + random.nextInt(335)), owner, global);
+        project.setProgress(random.nextInt(101));
+        return project;
+    }
+
+    private Projects.ProjectStatus status(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < STATUS_WEIGHTS.length; i++) {
+            roll -= STATUS_WEIGHTS[i];
+            if (roll < 0) {
+                return STATUSES[i];
+            }
+        }
+        return STATUSES[STATUSES.length - 1];
+    }
+
+    /**
+     * Zipf-ish count for the user at {@code rank}: max / (rank + 1)^skew with +-50% jitter,
+     * at least 1 for the head and often 0 in the long tail.
+     */
+    private int zipf(int max, int rank, SplittableRandom random) {
+        double expected = max / Math.pow(rank + 1, skew);
+        double jittered = expected * (0.5 + random.nextDouble());
+        return (int) Math.min(max, Math.round(jittered));
+    }
+
+    private int saveProjects(List<Projects> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> projectRepository.saveAll(batch));
+        return batch.size();
+    }
+
+    private int saveTokens(List<RefreshTokens> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> refreshTokensRepository.saveAll(batch));
+        return batch.size();
+    }
+
+    public static String username(int index) {
+        return String.format("%s%05d", USERNAME_PREFIX, index);
+    }
+}
@@ -0,0 +1,79 @@
+package service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as a GCRA (generic cell rate algorithm).
+ * <p>
+ * The whole state is one "theoretical arrival time" in a single {@link AtomicLong}, so a
+ * consume is one CAS loop with no allocation. A bucket that has been idle long enough to
+ * refill completely is indistinguishable from a new one, which makes it safe to evict.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    /**
+     * @param capacity        tokens available in a burst
+     * @param refillPeriodNanos time to refill one token
+     */
+    public TokenBucket(int capacity, long refillPeriodNanos) {
+        this(capacity, refillPeriodNanos, System.nanoTime());
+    }
+
+    TokenBucket(int capacity, long refillPeriodNanos, long nowNanos) {
+        if (capacity < 1 || refillPeriodNanos < 1) {
+            throw new IllegalArgumentException("Token bucket needs capacity >= 1 and a positive refill period");
+        }
+        this.emissionIntervalNanos = refillPeriodNanos;
+        this.burstToleranceNanos = (capacity - 1) * refillPeriodNanos;
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    public boolean tryConsume() {
+        return tryConsume(System.nanoTime());
+    }
+
+    public boolean tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrivalNanos.get();
+            long base = Math.max(tat, nowNanos);
+            if (base - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Nanoseconds until the next token is available (0 if one is available now).
+     */
+    public long nanosUntilAvailable(long nowNanos) {
+        long wait = theoreticalArrivalNanos.get() - burstToleranceNanos - nowNanos;
+        return Math.max(0L, wait);
+    }
+
+    /**
+     * Tokens that could be consumed right now.
+     */
+    public long remaining(long nowNanos) {
+        long used = Math.max(theoreticalArrivalNanos.get(), nowNanos) - nowNanos;
+        long free = burstToleranceNanos - used;
+        return free < 0 ? 0 : free / emissionIntervalNanos + 1;
+    }
+
+    /**
+     * Nanoseconds until the bucket is completely refilled.
+     */
+    public long nanosUntilFull(long nowNanos) {
+        return Math.max(0L, theoreticalArrivalNanos.get() - nowNanos);
+    }
+
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrivalNanos.get() <= nowNanos;
+    }
+}
@@ -1,5 +1,7 @@
 package service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +28,18 @@ public class TokenRotationService {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private SecurityIncidentMonitor securityIncidentMonitor;
+
+    @Autowired
+    private SecurityEventJournal securityEventJournal;
+
+    @Autowired
+    private AuthResultCache authResultCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // Configuration values
     @Value("${jwt.rotation.max-count:100}")
     private int maxRotationCount;
@@ -36,22 +50,62 @@ public class TokenRotationService {
     @Value("${jwt.rotation.max-rotations-per-minute:5}")
     private int maxRotationsPerMinute;
 
+    static final String OUTCOME_ROTATED = "rotated";
+    static final String OUTCOME_REUSE = "reuse";
+    static final String OUTCOME_RATE_LIMITED = "rate-limited";
+    static final String OUTCOME_LIMIT_EXCEEDED = "limit-exceeded";
+    static final String OUTCOME_INVALID = "invalid";
+    static final String OUTCOME_ERROR = "error";
+
+    /**
+     * A rotation refused by one of the checks; carries the outcome tag for the rotation timer.
+     */
+    static final class RotationRejectedException extends SecurityException {
+        private final String outcome;
+
+        RotationRejectedException(String outcome, String message) {
+            super(message);
+            this.outcome = outcome;
+        }
+    }
+
     @Transactional
     public RefreshTokens rotateToken(String oldToken, UUID userId, String username, String role, boolean rememberMe) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_ERROR;
+        try {
+            RefreshTokens rotated = doRotateToken(oldToken, userId, username, role, rememberMe);
+            outcome = OUTCOME_ROTATED;
+            return rotated;
+        } catch (RotationRejectedException e) {
+            outcome = e.outcome;
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("apms.token.rotation")
+                    .description("Refresh token rotations by outcome")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private RefreshTokens doRotateToken(String oldToken, UUID userId, String username, String role, boolean rememberMe) {
         log.debug("Starting token rotation for user: {}", username);
 
         // 1. Find the old token in database
         RefreshTokens oldTokenEntity = refreshTokensRepository.findByToken(oldToken)
-                .orElseThrow(() -> new SecurityException("Token not found in database"));
+                .orElseThrow(() -> new RotationRejectedException(OUTCOME_INVALID, "Token not found in database"));
 
         validateTokenForRotation(oldTokenEntity);
-        checkForTokenReuse(oldToken, oldTokenEntity.getTokenFamily());
-        checkRotationRateLimit(oldTokenEntity.getTokenFamily());
+        checkForTokenReuse(oldToken, oldTokenEntity.getTokenFamily(), userId, username);
+        checkRotationRateLimit(oldTokenEntity.getTokenFamily(), userId, username);
 
         if (oldTokenEntity.getRotationCount() >= maxRotationCount) {
             log.warn("Token rotation count exceeded for user: {} (count: {})",
                     username, oldTokenEntity.getRotationCount());
-            throw new SecurityException("Token rotation limit exceeded");
+            securityIncidentMonitor.record(SecurityIncidentMonitor.IncidentType.ROTATION_LIMIT_EXCEEDED);
+            securityEventJournal.record(SecurityEventJournal.EventType.ROTATION_LIMIT_EXCEEDED,
+                    userId, username, oldTokenEntity.getTokenFamily());
+            throw new RotationRejectedException(OUTCOME_LIMIT_EXCEEDED, "Token rotation limit exceeded");
         }
 
         String newRefreshTokenJwt;
@@ -79,23 +133,41 @@ public class TokenRotationService {
 
         oldTokenEntity.revoke();
         refreshTokensRepository.save(oldTokenEntity);
+        authResultCache.invalidateToken(oldToken);
 
         log.info("Token rotated successfully for user: {} (rotation count: {})",
                 username, newTokenEntity.getRotationCount());
 
+        JfrEvents.TokenRotated rotatedEvent = new JfrEvents.TokenRotated();
+        if (rotatedEvent.isEnabled()) {
+            rotatedEvent.userId = String.valueOf(userId);
+            rotatedEvent.tokenFamily = newTokenEntity.getTokenFamily();
+            rotatedEvent.rotationCount = newTokenEntity.getRotationCount();
+            rotatedEvent.commit();
+        }
+
         return newTokenEntity;
     }
 
     @Transactional
-    private void checkForTokenReuse(String token, String tokenFamily) {
+    private void checkForTokenReuse(String token, String tokenFamily, UUID userId, String username) {
         Optional<RefreshTokens> successorToken = refreshTokensRepository.findByPreviousToken(token);
 
         if (successorToken.isPresent()) {
             log.error("🚨 TOKEN REUSE DETECTED! Token family: {} - Revoking entire family", tokenFamily);
 
             revokeTokenFamily(tokenFamily, "Token reuse detected");
+            securityIncidentMonitor.record(SecurityIncidentMonitor.IncidentType.TOKEN_REUSE);
+            securityEventJournal.record(SecurityEventJournal.EventType.TOKEN_REUSE, userId, username, tokenFamily);
+
+            JfrEvents.ReuseDetected reuseEvent = new JfrEvents.ReuseDetected();
+            if (reuseEvent.isEnabled()) {
+                reuseEvent.userId = String.valueOf(userId);
+                reuseEvent.tokenFamily = tokenFamily;
+                reuseEvent.commit();
+            }
 
-            throw new SecurityException("Token reuse detected - all tokens revoked");
+            throw new RotationRejectedException(OUTCOME_REUSE, "Token reuse detected - all tokens revoked");
         }
     }
 
@@ -104,6 +176,7 @@ public class TokenRotationService {
         log.warn("Revoking token family: {} - Reason: {}", tokenFamily, reason);
 
         refreshTokensRepository.revokeTokenFamily(tokenFamily, LocalDateTime.now());
+        authResultCache.invalidateFamily(tokenFamily);
 
         // Optional: Send security alert to user
         // emailService.sendSecurityAlert(userId, "Token theft detected");
@@ -111,22 +184,22 @@ public class TokenRotationService {
 
     private void validateTokenForRotation(RefreshTokens token) {
         if (token.isRevoked()) {
-            throw new SecurityException("Cannot rotate revoked token");
+            throw new RotationRejectedException(OUTCOME_INVALID, "Cannot rotate revoked token");
         }
 
         if (token.isExpired()) {
-            throw new SecurityException("Cannot rotate expired token");
+            throw new RotationRejectedException(OUTCOME_INVALID, "Cannot rotate expired token");
         }
 
         if (token.isRevokedDueToReuse()) {
-            throw new SecurityException("Token family was revoked due to reuse");
+            throw new RotationRejectedException(OUTCOME_INVALID, "Token family was revoked due to reuse");
         }
     }
 
     /**
      * Check rotation rate limit (prevent rapid rotation attacks)
      */
-    private void checkRotationRateLimit(String tokenFamily) {
+    private void checkRotationRateLimit(String tokenFamily, UUID userId, String username) {
         LocalDateTime rateLimitThreshold = LocalDateTime.now().minusSeconds(rateLimitSeconds);
 
         List<RefreshTokens> recentRotations = refreshTokensRepository
@@ -135,7 +208,9 @@ public class TokenRotationService {
         if (recentRotations.size() >= maxRotationsPerMinute) {
             log.warn("Rate limit exceeded for token family: {} ({} rotations in {} seconds)",
                     tokenFamily, recentRotations.size(), rateLimitSeconds);
-            throw new SecurityException("Token rotation rate limit exceeded");
+            securityIncidentMonitor.record(SecurityIncidentMonitor.IncidentType.ROTATION_RATE_LIMIT);
+            securityEventJournal.record(SecurityEventJournal.EventType.ROTATION_RATE_LIMIT, userId, username, tokenFamily);
+            throw new RotationRejectedException(OUTCOME_RATE_LIMITED, "Token rotation rate limit exceeded");
         }
     }
 
@@ -170,6 +245,15 @@ public class TokenRotationService {
         return refreshTokensRepository.findTokensRevokedForReuse(since);
     }
 
+    public long countSuspiciousTokens() {
+        return refreshTokensRepository.countTokensWithHighRotationCount(maxRotationCount - 10);
+    }
+
+    public long countRecentSecurityIncidents(int hours) {
+        LocalDateTime since = LocalDateTime.now().minusHours(hours);
+        return refreshTokensRepository.countTokensRevokedForReuse(since);
+    }
+
     public Long getUserRotationCount(UUID userId) {
         Long count = refreshTokensRepository.getTotalRotationCountForUser(userId);
         return count != null ? count : 0L;
@@ -0,0 +1,138 @@
+package service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user version counters behind the ETags of the polled read endpoints (project list, project
+ * stats, profile), so a conditional GET can be answered with 304 without loading anything.
+ * <p>
+ * Every write that can change what a user sees bumps that user's version after it commits, and
+ * readers take the version before loading, so an ETag never describes newer data than it was
+ * built from. Each write is handed to the other in-process {@link InvalidationListener}s after
+ * commit and published on the {@link InvalidationBus} for other nodes; a resync bumps a global
+ * generation instead. ETags carry a per-process epoch, so two nodes (or a restart) never produce
+ * the same tag for different data; a client moving between nodes just gets one full response.
+ * Counters are never reset or evicted, so a tag is never reused: one entry per user written to.
+ */
+@Service
+public class UserDataVersions implements InvalidationListener {
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<InvalidationListener> listeners;
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<UUID, AtomicLong> versions = new ConcurrentHashMap<>();
+    private Counter bumpCounter;
+
+    @PostConstruct
+    public void init() {
+        bumpCounter = Counter.builder("apms.etag.version.bumps")
+                .description("Per-user data version increments from local and remote writes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Strong ETag for {@code resource} (e.g. "projects") as seen by the user. Call before loading the data.
+     */
+    public String etag(String resource, UUID userId) {
+        AtomicLong version = versions.get(userId);
+        return "\"" + resource + "-" + epoch + "-" + generation.get() + "-" + (version != null ? version.get() : 0) + "\"";
+    }
+
+    /**
+     * A project was created, changed or deleted; {@code users} are its creator and current and
+     * previous assignees (nulls are skipped).
+     */
+    public void projectChanged(UUID projectId, UUID... users) {
+        Set<UUID> affected = new LinkedHashSet<>();
+        for (UUID user : users) {
+            if (user != null) {
+                affected.add(user);
+            }
+        }
+        Invalidation invalidation = new Invalidation.ProjectChanged(projectId, Set.copyOf(affected));
+        afterCommit(() -> applyLocally(invalidation));
+        invalidationBus.publish(invalidation);
+    }
+
+    /**
+     * The user's own record changed (profile, role).
+     */
+    public void userChanged(UUID userId) {
+        Invalidation invalidation = new Invalidation.UserChanged(userId);
+        afterCommit(() -> applyLocally(invalidation));
+        invalidationBus.publish(invalidation);
+    }
+
+    /**
+     * Like {@link #userChanged}, for callers that already published a {@link Invalidation.UserChanged}.
+     */
+    public void userChangedLocally(UUID userId) {
+        afterCommit(() -> applyLocally(new Invalidation.UserChanged(userId)));
+    }
+
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        switch (invalidation) {
+            case Invalidation.ProjectChanged project -> project.affectedUsers().forEach(this::bump);
+            case Invalidation.UserChanged user -> bump(user.userId());
+            case Invalidation.TokenRevoked token -> {
+                // Sessions don't change any tagged representation
+            }
+            case Invalidation.TokenFamilyRevoked family -> {
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        generation.incrementAndGet();
+    }
+
+    private void applyLocally(Invalidation invalidation) {
+        onInvalidation(invalidation);
+        listeners.orderedStream()
+                .filter(listener -> listener != this)
+                .forEach(listener -> listener.onInvalidation(invalidation));
+    }
+
+    private void bump(UUID userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        bumpCounter.increment();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -6,7 +6,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.RefreshTokensRepository;
@@ -30,7 +29,13 @@ public class UserService {
     private RefreshTokensRepository refreshTokensRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private AuthResultCache authResultCache;
+
+    @Autowired
+    private UserDataVersions userDataVersions;
 
     @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
@@ -57,6 +62,9 @@ public class UserService {
 
         user.setRole(role);
         Users updatedUser = userRepository.save(user);
+        // Cached page sessions carry the role
+        authResultCache.invalidateUser(userId);
+        userDataVersions.userChangedLocally(userId);
         return UserResponse.fromEntity(updatedUser);
     }
 
@@ -70,6 +78,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         refreshTokensRepository.deleteByUserId(userId);
+        authResultCache.invalidateUser(userId);
         userRepository.delete(user);
     }
 
@@ -118,11 +127,11 @@ public class UserService {
     }
 
     public boolean verifyPassword(Users user, String rawPassword) {
-        return passwordEncoder.matches(rawPassword, user.getPassword());
+        return passwordHashingService.matches(rawPassword, user.getPassword());
     }
 
     public void updatePassword(Users user, String newPassword) {
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingService.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
     }
@@ -0,0 +1,47 @@
+package tables;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide state of one scheduled job, written by whichever node ran it last.
+ * Doubles as the lease: a node skips its turn if another finished the job recently.
+ */
+@Entity
+@Table(name = "scheduled_jobs")
+@Getter
+@Setter
+public class ScheduledJobs {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "last_started_at")
+    private LocalDateTime lastStartedAt;
+
+    @Column(name = "last_finished_at")
+    private LocalDateTime lastFinishedAt;
+
+    @Column(name = "last_duration_ms")
+    private Long lastDurationMs;
+
+    @Column(name = "last_rows_affected")
+    private Long lastRowsAffected;
+
+    @Column(name = "last_node", length = 100)
+    private String lastNode;
+
+    @Column(name = "run_count", nullable = false)
+    private long runCount = 0;
+
+    public ScheduledJobs() {
+    }
+
+    public ScheduledJobs(String name) {
+        this.name = name;
+    }
+}
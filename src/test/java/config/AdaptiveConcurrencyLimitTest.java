@@ -0,0 +1,135 @@
+package config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = 1_000_000L;
+    private static final double TOLERANCE = 1.5;
+
+    @Test
+    void growsWhileLatencyIsSteadyAndTheLimitIsInUse() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 1000, TOLERANCE);
+        hold(limit, 20);
+
+        sample(limit, FAST);
+        for (int i = 0; i < 10; i++) {
+            int before = limit.getLimit();
+            sample(limit, FAST);
+            // About sqrt(limit) / 5 per sample
+            assertTrue(limit.getLimit() - before <= 1, "growth per sample at " + before);
+        }
+        assertTrue(limit.getLimit() > 20, "limit " + limit.getLimit());
+        assertTrue(limit.getLimit() < 40, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 1000, TOLERANCE);
+        hold(limit, 5);
+
+        for (int i = 0; i < 50; i++) {
+            sample(limit, FAST);
+        }
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void shrinksByAtMostAboutATenthPerSampleWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 1, 100, TOLERANCE);
+        hold(limit, 100);
+        for (int i = 0; i < 50; i++) {
+            sample(limit, FAST);
+        }
+        assertEquals(100, limit.getLimit());
+
+        long rtt = FAST;
+        for (int i = 0; i < 10; i++) {
+            rtt *= 2;
+            int before = limit.getLimit();
+            sample(limit, rtt);
+            assertTrue(limit.getLimit() <= before, "limit grew from " + before);
+            assertTrue(limit.getLimit() >= before * 0.9 - 1, "dropped from " + before + " to " + limit.getLimit());
+        }
+        assertTrue(limit.getLimit() < 80, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void shrinksEvenWhenMostlyIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 1, 50, TOLERANCE);
+        hold(limit, 50);
+        for (int i = 0; i < 50; i++) {
+            sample(limit, FAST);
+        }
+        hold(limit, -46);
+
+        long rtt = FAST;
+        for (int i = 0; i < 10; i++) {
+            rtt *= 2;
+            sample(limit, rtt);
+        }
+        assertTrue(limit.getLimit() < 50, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void staysWithinMinAndMax() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 8, 12, TOLERANCE);
+        hold(limit, 12);
+        for (int i = 0; i < 200; i++) {
+            sample(limit, FAST);
+        }
+        assertEquals(12, limit.getLimit());
+
+        long rtt = FAST;
+        for (int i = 0; i < 40; i++) {
+            rtt += rtt / 4;
+            sample(limit, rtt);
+        }
+        assertEquals(8, limit.getLimit());
+
+        assertEquals(20, new AdaptiveConcurrencyLimit(50, 1, 20, TOLERANCE).getLimit());
+        assertEquals(5, new AdaptiveConcurrencyLimit(1, 5, 20, TOLERANCE).getLimit());
+    }
+
+    @Test
+    void headroomAdmitsQueuedRequestsBeyondTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 10, TOLERANCE);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire(0));
+        }
+        assertFalse(limit.tryAcquire(0));
+        assertTrue(limit.tryAcquire(2));
+        assertTrue(limit.tryAcquire(2));
+        assertFalse(limit.tryAcquire(2));
+        assertEquals(6, limit.getInFlight());
+
+        limit.release(0, false);
+        assertTrue(limit.tryAcquire(2));
+        assertFalse(limit.tryAcquire(0));
+    }
+
+    /**
+     * Acquires (or, for a negative count, releases without sampling) that many slots.
+     */
+    private static void hold(AdaptiveConcurrencyLimit limit, int slots) {
+        for (int i = 0; i < Math.abs(slots); i++) {
+            if (slots > 0) {
+                assertTrue(limit.tryAcquire(1000));
+            } else {
+                limit.release(0, false);
+            }
+        }
+    }
+
+    /**
+     * Completes one request with the given latency and starts another, keeping the load constant.
+     */
+    private static void sample(AdaptiveConcurrencyLimit limit, long rttNanos) {
+        limit.release(rttNanos, true);
+        assertTrue(limit.tryAcquire(1000));
+    }
+}
@@ -0,0 +1,103 @@
+package config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteClassifierTest {
+
+    private static final List<String> SAMPLE_PATHS = List.of(
+            "/", "/login", "/favicon.ico", "/robots.txt",
+            "/ConsoleApp", "/ConsoleApp/", "/ConsoleApp/dashboard", "/ConsoleApp/projects/edit/42",
+            "/css/app.css", "/js/app.js", "/images/logo.png", "/webjars/bootstrap/5/css/bootstrap.min.css",
+            "/static/fonts/a.woff2", "/cssx/app.css", "/images",
+            "/api/auth/login", "/api/auth/register", "/api/auth/refresh", "/api/auth/logout",
+            "/api/auth/logout-all", "/api/auth/dashboard", "/api/auth/verify", "/api/auth/login-attempts",
+            "/api/auth", "/api", "/api/projects", "/api/projects/123/progress", "/api/projects.json",
+            "/api/admin", "/api/admin/users", "/api/admin/monitoring/security-events", "/api/administrator",
+            "/v3/api-docs", "/v3/api-docs/swagger-config", "/swagger-ui/index.html", "/swagger-ui.html",
+            "/.well-known/openid-configuration", "/actuator/health", "/actuator/health/liveness",
+            "/actuator/prometheus", "/actuator/metrics/jvm.memory.used", "/actuator",
+            "/other/page.json", "/assets/site.map", "/download/file.zip"
+    );
+
+    private final RouteClassifier classifier = new RouteClassifier();
+
+    /**
+     * SecurityConfig registers {@link RouteClassifier#RULES} in order with first-match semantics.
+     * The trie must pick the same rule for every path.
+     */
+    @Test
+    void trieAgreesWithSecurityConfigMatchers() {
+        List<RequestMatcher> matchers = new ArrayList<>();
+        List<RouteClassifier.Route> owners = new ArrayList<>();
+        for (RouteClassifier.Route route : RouteClassifier.RULES) {
+            for (String pattern : route.patterns()) {
+                matchers.add(PathPatternRequestMatcher.withDefaults().matcher(pattern));
+                owners.add(route);
+            }
+        }
+
+        for (String path : SAMPLE_PATHS) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+            RouteClassifier.Route expected = null;
+            for (int i = 0; i < matchers.size(); i++) {
+                if (matchers.get(i).matches(request)) {
+                    expected = owners.get(i);
+                    break;
+                }
+            }
+
+            RouteClassifier.Route actual = classifier.classify(path);
+            if (expected != null) {
+                assertSame(expected, actual, "Route for " + path);
+            } else {
+                // anyRequest().permitAll()
+                assertFalse(RouteClassifier.RULES.contains(actual), "Route for " + path);
+                assertEquals(RouteClassifier.Access.PERMIT_ALL, actual.access(), "Access for " + path);
+            }
+        }
+    }
+
+    @Test
+    void classifiesKnownRoutes() {
+        assertEquals(RouteClassifier.Access.ADMIN, classifier.classify("/api/admin/users").access());
+        assertEquals(RouteClassifier.Access.AUTHENTICATED, classifier.classify("/api/projects").access());
+        assertEquals(RouteClassifier.Access.AUTHENTICATED, classifier.classify("/api/auth/verify").access());
+        assertEquals(RouteClassifier.Access.OPS, classifier.classify("/actuator/prometheus").access());
+        assertEquals(RouteClassifier.Access.PERMIT_ALL, classifier.classify("/actuator/health").access());
+        assertFalse(classifier.classify("/api/auth/login").authenticates());
+        assertTrue(classifier.classify("/api/auth/dashboard").authenticates());
+        assertFalse(classifier.classify("/ConsoleApp/dashboard").authenticates());
+        assertTrue(classifier.classify("/").authenticates());
+    }
+
+    @Test
+    void staticResourcesByPrefixAndExtension() {
+        assertTrue(classifier.classify("/css/app.css").isStaticResource());
+        assertTrue(classifier.classify("/favicon.ico").isStaticResource());
+        assertTrue(classifier.classify("/other/page.json").isStaticResource());
+        assertTrue(classifier.classify("/fonts/a.woff2").isStaticResource());
+        assertFalse(classifier.classify("/download/file.zip").isStaticResource());
+        assertFalse(classifier.classify("/weird.json/page").isStaticResource());
+        // Extension rules never open up protected API paths
+        assertFalse(classifier.classify("/api/projects.json").isStaticResource());
+    }
+
+    @Test
+    void cachesRouteOnRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects");
+        RouteClassifier.Route route = classifier.classify(request);
+        assertSame(route, request.getAttribute(RouteClassifier.ROUTE_ATTRIBUTE));
+        assertSame(route, classifier.classify(request));
+    }
+}
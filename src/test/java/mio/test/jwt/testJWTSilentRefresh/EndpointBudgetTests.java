@@ -0,0 +1,370 @@
+package mio.test.jwt.testJWTSilentRefresh;
+
+import config.AppConstants;
+import config.RequestLoggingFilter;
+import config.RequestQueryStats;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import repository.ProjectRepository;
+import repository.RefreshTokensRepository;
+import repository.UserRepository;
+import service.JwtService;
+import tables.Projects;
+import tables.RefreshTokens;
+import tables.Users;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+
+/**
+ * Query-count and allocation budgets per endpoint, from src/test/resources/endpoint-budgets.csv.
+ * <p>
+ * Boots the app against an embedded Postgres, seeds a user and an admin with projects, and drives
+ * each endpoint through MockMvc with the production filter order. Statements are counted through
+ * {@link RequestQueryStats}, so only the request thread is measured; allocation comes from
+ * {@link com.sun.management.ThreadMXBean}. Each endpoint is warmed up first and the lowest
+ * allocation of the measured runs is compared, so JIT and lazy initialisation don't count.
+ * After a run, target/endpoint-budgets-measured.csv is the budget file with every measured row set to
+ * its measured numbers plus ~25% headroom, ready to be copied over it when re-baselining.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointBudgetTests {
+
+    private static final String BUDGETS = "/endpoint-budgets.csv";
+    private static final Path MEASURED = Paths.get("target", "endpoint-budgets-measured.csv");
+    private static final String PASSWORD = "budget-password";
+    private static final int PERSONAL_PROJECTS = 10;
+    private static final int GLOBAL_PROJECTS = 10;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 3;
+    private static final String BASELINE_LINE = "# Baseline:";
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private RequestLoggingFilter requestLoggingFilter;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private RefreshTokensRepository refreshTokensRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final AtomicReference<RequestQueryStats> lastRequestStats = new AtomicReference<>();
+    private final Map<String, Measured> measurements = new ConcurrentHashMap<>();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private Map<String, String> pathVariables;
+    private MockMvc mockMvc;
+
+    private record Session(String accessToken, String refreshToken) {
+    }
+
+    private record Measured(int queries, long allocatedKb) {
+    }
+
+    record Budget(String method, String path, String principal, int expectedStatus,
+                  int maxQueries, long maxAllocatedKb, String body) {
+
+        boolean skipped() {
+            return "skip".equals(principal);
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + path;
+        }
+    }
+
+    /**
+     * One database per JVM, shared by cached contexts; EmbeddedPostgres stops it on shutdown.
+     */
+    @DynamicPropertySource
+    static void embeddedPostgres(DynamicPropertyRegistry registry) throws IOException {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.start();
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeAll
+    void seedFixtures() {
+        // The capture filter sits inside RequestLoggingFilter, so it sees the stats that filter starts
+        Filter captureQueryStats = (request, response, chain) -> {
+            lastRequestStats.set(RequestQueryStats.current());
+            chain.doFilter(request, response);
+        };
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(requestLoggingFilter, captureQueryStats)
+                .apply(springSecurity())
+                .build();
+
+        Users user = userRepository.save(new Users("budget-user", "budget-user@example.com",
+                passwordEncoder.encode(PASSWORD), null));
+        Users admin = userRepository.save(new Users("budget-admin", "budget-admin@example.com",
+                passwordEncoder.encode(PASSWORD), Users.Role.ADMIN, null));
+
+        List<Projects> projects = new ArrayList<>();
+        for (int i = 0; i < PERSONAL_PROJECTS; i++) {
+            projects.add(project("Budget project " + i, user, false));
+        }
+        for (int i = 0; i < GLOBAL_PROJECTS; i++) {
+            Projects global = project("Budget global " + i, admin, true);
+            // Half assigned, so the assigned-user lookups in the mappers are exercised
+            global.setAssignedTo(i % 2 == 0 ? user.getId() : null);
+            projects.add(global);
+        }
+        projects = projectRepository.saveAll(projects);
+
+        sessions.put("user", session(user));
+        sessions.put("admin", session(admin));
+        pathVariables = Map.of(
+                "{userId}", user.getId().toString(),
+                "{projectId}", projects.get(0).getId().toString(),
+                "{globalProjectId}", projects.get(PERSONAL_PROJECTS + 1).getId().toString(),
+                "{status}", Projects.ProjectStatus.IN_PROGRESS.name());
+    }
+
+    static List<Budget> budgets() {
+        return budgetLines().stream()
+                .map(String::strip)
+                .filter(line -> !isComment(line))
+                .map(EndpointBudgetTests::parse)
+                .toList();
+    }
+
+    private static List<String> budgetLines() {
+        InputStream in = EndpointBudgetTests.class.getResourceAsStream(BUDGETS);
+        if (in == null) {
+            throw new IllegalStateException(BUDGETS + " not found on the test classpath");
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isComment(String line) {
+        return line.isEmpty() || line.startsWith("#");
+    }
+
+    private static Budget parse(String line) {
+        // The body is the last column and may itself contain commas
+        String[] columns = line.split(",", 7);
+        if (columns.length != 7) {
+            throw new IllegalStateException("Malformed budget row: " + line);
+        }
+        if ("skip".equals(columns[2])) {
+            return new Budget(columns[0], columns[1], columns[2], 0, 0, 0, columns[6]);
+        }
+        return new Budget(columns[0], columns[1], columns[2], Integer.parseInt(columns[3]),
+                Integer.parseInt(columns[4]), Long.parseLong(columns[5]), columns[6]);
+    }
+
+    @Test
+    void everyControllerMappingHasABudget() {
+        Set<String> budgeted = budgets().stream()
+                .map(budget -> budget.method() + " " + normalize(budget.path()))
+                .collect(Collectors.toSet());
+
+        Set<String> missing = new TreeSet<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            if (!entry.getValue().getBeanType().getPackageName().equals("controller")) {
+                continue;
+            }
+            RequestMappingInfo mapping = entry.getKey();
+            Set<String> methods = mapping.getMethodsCondition().getMethods().isEmpty()
+                    ? Set.of("*")
+                    : mapping.getMethodsCondition().getMethods().stream().map(Enum::name).collect(Collectors.toSet());
+            for (String pattern : mapping.getPatternValues()) {
+                for (String method : methods) {
+                    if (!budgeted.contains(method + " " + normalize(pattern))) {
+                        missing.add(method + " " + pattern);
+                    }
+                }
+            }
+        }
+
+        assertThat(missing)
+                .as("Controller mappings without a row in %s (add a budget or a skip row)", BUDGETS)
+                .isEmpty();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("budgets")
+    void staysWithinBudget(Budget budget) throws Exception {
+        // Reported as skipped with the row's reason rather than as a pass
+        assumeFalse(budget.skipped(), budget.body());
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            perform(budget);
+        }
+
+        int queries = 0;
+        long allocatedBytes = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+            MvcResult result = perform(budget);
+            long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+            assertThat(result.getResponse().getStatus())
+                    .as("%s status", budget)
+                    .isEqualTo(budget.expectedStatus());
+            RequestQueryStats stats = lastRequestStats.get();
+            queries = Math.max(queries, stats != null ? stats.getQueryCount() : 0);
+            allocatedBytes = Math.min(allocatedBytes, allocated);
+        }
+
+        long allocatedKb = allocatedBytes / 1024;
+        measurements.put(budget.toString(), new Measured(queries, allocatedKb));
+
+        assertThat(queries)
+                .as("%s issued %d SQL statements, budget is %d", budget, queries, budget.maxQueries())
+                .isLessThanOrEqualTo(budget.maxQueries());
+        assertThat(allocatedKb)
+                .as("%s allocated %d KB on the request thread, budget is %d KB", budget, allocatedKb, budget.maxAllocatedKb())
+                .isLessThanOrEqualTo(budget.maxAllocatedKb());
+    }
+
+    @AfterAll
+    void writeMeasurements() throws IOException {
+        if (measurements.isEmpty()) {
+            return;
+        }
+        // Same rows, order and comments as the budget file; rows that weren't measured stay as they are
+        List<String> lines = new ArrayList<>();
+        for (String line : budgetLines()) {
+            String row = line.strip();
+            if (row.startsWith(BASELINE_LINE)) {
+                lines.add(BASELINE_LINE + " measured " + LocalDate.now() + " on Java " + Runtime.version().feature()
+                        + ", ~25% headroom");
+                continue;
+            }
+            if (isComment(row)) {
+                lines.add(line);
+                continue;
+            }
+            Budget budget = parse(row);
+            Measured measured = measurements.get(budget.toString());
+            lines.add(measured == null ? line : String.join(",", budget.method(), budget.path(), budget.principal(),
+                    String.valueOf(budget.expectedStatus()), String.valueOf(withHeadroom(measured.queries())),
+                    String.valueOf(withHeadroom(measured.allocatedKb())), budget.body()));
+        }
+        Files.createDirectories(MEASURED.getParent());
+        Files.write(MEASURED, lines, StandardCharsets.UTF_8);
+    }
+
+    private static long withHeadroom(long measured) {
+        return measured + (measured + 3) / 4;
+    }
+
+    private MvcResult perform(Budget budget) throws Exception {
+        String path = budget.path();
+        for (Map.Entry<String, String> variable : pathVariables.entrySet()) {
+            path = path.replace(variable.getKey(), variable.getValue());
+        }
+
+        lastRequestStats.set(null);
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.request(HttpMethod.valueOf(budget.method()), path);
+        Session session = sessions.get(budget.principal());
+        if (session != null) {
+            request.header("Authorization", "Bearer " + session.accessToken())
+                    .cookie(new Cookie(AppConstants.Auth.REFRESH_TOKEN_COOKIE, session.refreshToken()));
+        }
+        if (!budget.body().isEmpty()) {
+            request.contentType(MediaType.APPLICATION_JSON).content(budget.body());
+        }
+        return mockMvc.perform(request).andReturn();
+    }
+
+    private Session session(Users user) {
+        String role = user.getRole().name();
+        String refreshToken = jwtService.generateRefreshToken(user.getId(), user.getUsername(), role);
+        refreshTokensRepository.save(new RefreshTokens(user.getId(), refreshToken,
+                jwtService.getRefreshTokenExpirationTime(), false, UUID.randomUUID().toString()));
+        return new Session(jwtService.generateAccessToken(user.getId(), user.getUsername(), role), refreshToken);
+    }
+
+    private static Projects project(String name, Users owner, boolean global) {
+        Projects project = new Projects(name, "Seeded by EndpointBudgetTests", Projects.ProjectStatus.IN_PROGRESS,
+                Projects.ProjectPriority.MEDIUM, LocalDate.now().minusDays(7), LocalDate.now().plusDays(30),
+                owner, global);
+        project.setCreatedAt(LocalDateTime.now());
+        project.setUpdatedAt(LocalDateTime.now());
+        return project;
+    }
+
+    private static String normalize(String pattern) {
+        return pattern.replaceAll("\\{[^}]*}", "{}");
+    }
+}
@@ -0,0 +1,77 @@
+package service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiRateLimiterTest {
+
+    private static final String IP = "203.0.113.7";
+
+    @TempDir
+    Path dir;
+
+    private final ApiRateLimiter limiter = new ApiRateLimiter();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Hour-long periods, so no token comes back while the test runs
+        Path quotas = dir.resolve("rate-limits.properties");
+        Files.writeString(quotas, """
+                sync.match=POST /api/projects/sync-github
+                sync.user=2/1h
+                sync.ip=10/1h
+                """);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "quotasLocation", quotas.toUri().toString());
+        ReflectionTestUtils.setField(limiter, "maxEntries", 1000);
+        ReflectionTestUtils.setField(limiter, "stripeCount", 4);
+        ReflectionTestUtils.setField(limiter, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(limiter, "meterRegistry", new SimpleMeterRegistry());
+        limiter.init();
+    }
+
+    @Test
+    void rejectedUserRequestDoesNotChargeTheIp() {
+        assertTrue(sync("alice").allowed());
+        assertTrue(sync("alice").allowed());
+        assertEquals(7, sync(null).remaining());
+
+        for (int i = 0; i < 5; i++) {
+            ApiRateLimiter.Decision rejected = sync("alice");
+            assertFalse(rejected.allowed());
+            assertEquals(0, rejected.remaining());
+        }
+
+        // The rejected requests left the IP bucket alone
+        assertEquals(6, sync(null).remaining());
+        assertTrue(sync("bob").allowed());
+    }
+
+    @Test
+    void rejectedIpRequestDoesNotChargeTheUser() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(sync(null).allowed());
+        }
+        assertFalse(sync("alice").allowed());
+
+        ApiRateLimiter.Decision fromElsewhere = limiter.acquire("POST", "/api/projects/sync-github", "alice", "198.51.100.2");
+        assertTrue(fromElsewhere.allowed());
+        assertEquals(1, fromElsewhere.remaining());
+    }
+
+    private ApiRateLimiter.Decision sync(String user) {
+        return limiter.acquire("POST", "/api/projects/sync-github", user, IP);
+    }
+}
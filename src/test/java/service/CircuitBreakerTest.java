@@ -0,0 +1,121 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final int THRESHOLD = 3;
+    private static final long OPEN_NANOS = 1_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker("test", THRESHOLD, OPEN_NANOS, clock::get);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        for (int i = 0; i < THRESHOLD - 1; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // A success in between resets the count
+        breaker.onSuccess(breaker.tryAcquire());
+        for (int i = 0; i < THRESHOLD - 1; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+        assertEquals(OPEN_NANOS, breaker.nanosUntilProbe());
+    }
+
+    @Test
+    void halfOpenProbeSuccessCloses() {
+        trip();
+        clock.addAndGet(OPEN_NANOS);
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertNotNull(probe);
+        assertTrue(probe.probe());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire(), "only one probe at a time");
+
+        breaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertNotNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpenProbeFailureReopens() {
+        trip();
+        clock.addAndGet(OPEN_NANOS);
+
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+
+        clock.addAndGet(OPEN_NANOS - 1);
+        assertNull(breaker.tryAcquire());
+        clock.addAndGet(1);
+        assertNotNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void ignoredProbeReleasesTheSlot() {
+        trip();
+        clock.addAndGet(OPEN_NANOS);
+
+        breaker.onIgnored(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNotNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void lateOutcomesFromBeforeTheTripAreIgnored() {
+        CircuitBreaker.Permit slowSuccess = breaker.tryAcquire();
+        CircuitBreaker.Permit slowFailure = breaker.tryAcquire();
+        trip();
+
+        // Admitted while closed, finishing after the trip: must not close the circuit
+        breaker.onSuccess(slowSuccess);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        clock.addAndGet(OPEN_NANOS);
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        // ...nor decide the probe's outcome
+        breaker.onFailure(slowFailure);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void lateFailuresDontCountTowardsTheNextTrip() {
+        CircuitBreaker.Permit stale = breaker.tryAcquire();
+        trip();
+        clock.addAndGet(OPEN_NANOS);
+        breaker.onSuccess(breaker.tryAcquire());
+
+        breaker.onFailure(stale);
+        for (int i = 0; i < THRESHOLD - 1; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void trip() {
+        for (int i = 0; i < THRESHOLD; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}